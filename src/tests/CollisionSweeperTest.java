@@ -0,0 +1,198 @@
+package tests;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+
+import omega_gameplay.Collidable;
+import omega_gameplay.CollisionListener;
+import uninamo_gameplaysupport.CollisionLayer;
+import uninamo_gameplaysupport.CollisionSweeper;
+
+/**
+ * CollisionSweeperTest checks that the objects resting on a removed support
+ * are found through the collisionSweeper. The blocks used in the test wake
+ * up the same way the obstacles do.
+ *
+ * @author Mikko Hilpinen
+ * @since 5.4.2014
+ */
+public class CollisionSweeperTest
+{
+	// CONSTRUCTOR	-----------------------------------------------------
+	
+	private CollisionSweeperTest()
+	{
+		// The constructor is never used
+	}
+	
+	
+	// MAIN METHOD	-----------------------------------------------------
+	
+	/**
+	 * Runs the test
+	 *
+	 * @param args Not needed
+	 */
+	public static void main(String[] args)
+	{
+		System.out.println("\nStarts the collision sweeper test");
+		
+		// A stack of two boxes rests on a support. Another box rests further
+		// away
+		CollisionSweeper sweeper = new CollisionSweeper();
+		Block support = new Block(sweeper, "support", 0, 100, 64, 32);
+		Block lower = new Block(sweeper, "lower", 16, 68, 32, 32);
+		Block upper = new Block(sweeper, "upper", 16, 36, 32, 32);
+		Block distant = new Block(sweeper, "distant", 200, 68, 32, 32);
+		
+		// The bounds are updated during the collision check
+		sweeper.act(1);
+		
+		System.out.println("Should find lower: " +
+				getNames(sweeper.getListenersTouching(support)));
+		
+		// Removing the support wakes up the stack but not the distant box
+		support.kill();
+		System.out.println("Should be awake: lower true, upper true, " +
+				"distant false: " + lower.isAwake() + ", " + upper.isAwake() +
+				", " + distant.isAwake());
+		
+		// The support is removed from the sweeper on the next check
+		sweeper.act(1);
+		System.out.println("Should find nothing: " +
+				getNames(sweeper.getListenersTouching(support)));
+		
+		System.out.println("Collision sweeper test complete");
+	}
+	
+	
+	// OTHER METHODS	-------------------------------------------------
+	
+	private static String getNames(ArrayList<CollisionListener> listeners)
+	{
+		StringBuilder names = new StringBuilder();
+		for (CollisionListener listener : listeners)
+		{
+			if (names.length() > 0)
+				names.append(", ");
+			names.append(listener);
+		}
+		
+		return names.toString();
+	}
+	
+	
+	// SUBCLASSES	-----------------------------------------------------
+	
+	// A sleeping rectangle that wakes up the sleeping blocks touching it when
+	// it is removed or woken up
+	private static class Block implements CollisionListener
+	{
+		// ATTRIBUTES	-------------------------------------------------
+		
+		private CollisionSweeper sweeper;
+		private String name;
+		private Point2D.Double[] corners;
+		private boolean sleeping, dead;
+		
+		
+		// CONSTRUCTOR	-------------------------------------------------
+		
+		public Block(CollisionSweeper sweeper, String name, double x,
+				double y, double width, double height)
+		{
+			// Initializes attributes
+			this.sweeper = sweeper;
+			this.name = name;
+			this.corners = new Point2D.Double[] {new Point2D.Double(x, y),
+					new Point2D.Double(x + width, y),
+					new Point2D.Double(x, y + height),
+					new Point2D.Double(x + width, y + height)};
+			this.sleeping = true;
+			this.dead = false;
+			
+			// Adds the object to the handler(s)
+			sweeper.addCollisionListener(this, CollisionLayer.OBSTACLE);
+		}
+		
+		
+		// IMPLEMENTED METHODS	-----------------------------------------
+		
+		@Override
+		public boolean isActive()
+		{
+			return !this.sleeping;
+		}
+		
+		@Override
+		public void activate()
+		{
+			wakeUp();
+		}
+		
+		@Override
+		public void inactivate()
+		{
+			this.sleeping = true;
+		}
+		
+		@Override
+		public boolean isDead()
+		{
+			return this.dead;
+		}
+		
+		@Override
+		public void kill()
+		{
+			wakeUpTouchingBlocks();
+			this.dead = true;
+		}
+		
+		@Override
+		public Point2D.Double[] getCollisionPoints()
+		{
+			return this.corners;
+		}
+		
+		@Override
+		public void onCollision(ArrayList<Point2D.Double> colpoints,
+				Collidable collided, double steps)
+		{
+			// The blocks don't move
+		}
+		
+		@Override
+		public String toString()
+		{
+			return this.name;
+		}
+		
+		
+		// OTHER METHODS	---------------------------------------------
+		
+		private boolean isAwake()
+		{
+			return !this.sleeping;
+		}
+		
+		private void wakeUp()
+		{
+			if (!this.sleeping)
+				return;
+			
+			this.sleeping = false;
+			wakeUpTouchingBlocks();
+		}
+		
+		private void wakeUpTouchingBlocks()
+		{
+			for (CollisionListener listener :
+					this.sweeper.getListenersTouching(this))
+			{
+				if (listener instanceof Block)
+					((Block) listener).wakeUp();
+			}
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package tests;
+
+import uninamo_components.GateType;
+import uninamo_components.SignalCircuit;
+
+/**
+ * SignalCircuitTest checks that the separate parts of a signalCircuit are 
+ * found as separate islands, no matter where their indices are.
+ *
+ * @author Mikko Hilpinen
+ * @since 5.4.2014
+ */
+public class SignalCircuitTest
+{
+	// CONSTRUCTOR	-----------------------------------------------------
+	
+	private SignalCircuitTest()
+	{
+		// The constructor is never used
+	}
+	
+	
+	// MAIN METHOD	-----------------------------------------------------
+	
+	/**
+	 * Runs the test
+	 *
+	 * @param args Not needed
+	 */
+	public static void main(String[] args)
+	{
+		System.out.println("\nStarts the signal circuit test");
+		
+		// Two small circuits that aren't connected to each other. Their 
+		// connectors are next to each other in the signal stores
+		SignalCircuit circuit = new SignalCircuit();
+		int[] first = addInverter(circuit);
+		int[] second = addInverter(circuit);
+		
+		System.out.println("Should have 2 islands: " + 
+				circuit.getIslandAmount());
+		
+		// Both still work on their own
+		circuit.setOutputSignal(first[0], true);
+		System.out.println("Should be false, true: " + 
+				circuit.getConnectorSignal(first[2]) + ", " + 
+				circuit.getConnectorSignal(second[2]));
+		
+		// Connecting the circuits makes them a single island
+		circuit.connectCable(circuit.addCable(null), first[2], second[1]);
+		System.out.println("Should have 1 island: " + 
+				circuit.getIslandAmount());
+		
+		System.out.println("Signal circuit test complete");
+	}
+	
+	
+	// OTHER METHODS	-------------------------------------------------
+	
+	// Adds a machine output that is connected to an inverter. Returns the 
+	// machine's output and the inverter's input and output
+	private static int[] addInverter(SignalCircuit circuit)
+	{
+		int source = circuit.addConnector(null);
+		circuit.addGate(GateType.EXTERNAL, new int[0], new int[] {source});
+		
+		int input = circuit.addConnector(null);
+		int output = circuit.addConnector(null);
+		circuit.addGate(GateType.INVERTER, new int[] {input}, 
+				new int[] {output});
+		circuit.connectCable(circuit.addCable(null), source, input);
+		
+		return new int[] {source, input, output};
+	}
+}
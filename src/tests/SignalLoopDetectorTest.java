@@ -0,0 +1,102 @@
+package tests;
+
+import uninamo_components.GateType;
+import uninamo_components.SignalCircuit;
+import uninamo_components.SignalLoopDetector;
+
+/**
+ * SignalLoopDetectorTest checks that the loop detector gives the same verdict 
+ * on every run, even when the circuit has more inputs than can be simulated 
+ * in a single batch.
+ *
+ * @author Mikko Hilpinen
+ * @since 5.4.2014
+ */
+public class SignalLoopDetectorTest
+{
+	// CONSTRUCTOR	-----------------------------------------------------
+	
+	private SignalLoopDetectorTest()
+	{
+		// The constructor is never used
+	}
+	
+	
+	// MAIN METHOD	-----------------------------------------------------
+	
+	/**
+	 * Runs the test
+	 *
+	 * @param args Not needed
+	 */
+	public static void main(String[] args)
+	{
+		System.out.println("\nStarts the loop detector test");
+		
+		// A loop that only oscillates when the inputs 6-11 all send TRUE
+		SignalLoopDetector oscillating = new SignalLoopDetector(
+				createGatedLoop(GateType.NAND), null);
+		// A loop that holds its signal in every case
+		SignalLoopDetector holding = new SignalLoopDetector(
+				createGatedLoop(GateType.AND), null);
+		
+		boolean oscillatingSettles = false, holdingSettles = true;
+		for (int i = 0; i < 10; i++)
+		{
+			oscillatingSettles |= oscillating.settlesWithAllInputs();
+			holdingSettles &= holding.settlesWithAllInputs();
+		}
+		
+		System.out.println("The gated inverter loop never settles: " + 
+				!oscillatingSettles);
+		System.out.println("The gated and loop always settles: " + 
+				holdingSettles);
+		
+		System.out.println("Loop detector test complete");
+	}
+	
+	
+	// OTHER METHODS	-------------------------------------------------
+	
+	// Creates a circuit with 12 external inputs where the given gate feeds 
+	// its output back to its first input. The second input receives TRUE 
+	// only when the inputs 6-11 all send TRUE.
+	private static SignalCircuit createGatedLoop(GateType loopGate)
+	{
+		SignalCircuit circuit = new SignalCircuit();
+		
+		int[] inputs = new int[12];
+		for (int i = 0; i < inputs.length; i++)
+			inputs[i] = circuit.addConnector(null);
+		circuit.addGate(GateType.EXTERNAL, new int[0], inputs);
+		
+		// Combines the inputs 6-11 with a chain of and gates
+		int enable = inputs[6];
+		for (int i = 7; i < inputs.length; i++)
+		{
+			int first = circuit.addConnector(null);
+			int second = circuit.addConnector(null);
+			int output = circuit.addConnector(null);
+			circuit.addGate(GateType.AND, new int[] {first, second}, 
+					new int[] {output});
+			connect(circuit, enable, first);
+			connect(circuit, inputs[i], second);
+			enable = output;
+		}
+		
+		int loopInput = circuit.addConnector(null);
+		int enableInput = circuit.addConnector(null);
+		int loopOutput = circuit.addConnector(null);
+		circuit.addGate(loopGate, new int[] {loopInput, enableInput}, 
+				new int[] {loopOutput});
+		connect(circuit, enable, enableInput);
+		connect(circuit, loopOutput, loopInput);
+		
+		return circuit;
+	}
+	
+	private static void connect(SignalCircuit circuit, int start, int end)
+	{
+		circuit.connectCable(circuit.addCable(null), start, end);
+	}
+}
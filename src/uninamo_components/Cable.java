@@ -10,11 +10,12 @@ import omega_gameplay.CollisionType;
 import omega_gameplay.HelpMath;
 import omega_graphic.DimensionalDrawnObject;
 import omega_graphic.OpenSpriteBank;
-import omega_graphic.SingleSpriteDrawer;
+import omega_graphic.Sprite;
 import omega_graphic.TransformationListener;
 import omega_world.Area;
 import omega_world.Room;
 import omega_world.RoomListener;
+import uninamo_gameplaysupport.MouseDispatcher;
 import uninamo_gameplaysupport.TestHandler;
 import uninamo_gameplaysupport.TestListener;
 import uninamo_main.GameSettings;
@@ -32,12 +33,15 @@ public class Cable extends DimensionalDrawnObject implements
 {
 	// ATTRIBUTES	-----------------------------------------------------
 	
-	private SingleSpriteDrawer spritedrawer;
-	private boolean active, lastSignalStatus, dragged, testing, testVersion;
+	private Sprite sprite;
+	private CableLayer layer;
+	private boolean active, dragged, testing, testVersion, shownSignal;
 	private OutputCableConnector start;
 	private InputCableConnector end;
-	private Point2D.Double lastMousePosition;
+	private Point2D.Double lastMousePosition, startPoint, endPoint;
 	private ConnectorRelay connectorRelay;
+	private SignalCircuit circuit;
+	private int circuitIndex;
 	
 	/**
 	 * Is there currently a cable that's being dragged around
@@ -91,9 +95,11 @@ public class Cable extends DimensionalDrawnObject implements
 		*/
 		
 		// Initializes attributes
-		this.spritedrawer = new SingleSpriteDrawer(
-				OpenSpriteBank.getSpriteBank("components").getSprite(
-				"cable"), null, this);
+		// The sprite only defines the cable's size, the cable itself is 
+		// drawn by the area's cableLayer
+		this.sprite = OpenSpriteBank.getSpriteBank("components").getSprite(
+				"cable");
+		this.layer = CableLayer.getLayer(area);
 		this.active = true;
 		this.start = startConnector;
 		this.end = endConnector;
@@ -101,23 +107,37 @@ public class Cable extends DimensionalDrawnObject implements
 		this.lastMousePosition = new Point2D.Double(
 				area.getMouseHandler().getMousePosition().getX(), 
 				area.getMouseHandler().getMousePosition().getY());
-		this.lastSignalStatus = false;
 		this.connectorRelay = connectorRelay;
 		this.testing = false;
+		this.shownSignal = false;
+		this.startPoint = new Point2D.Double();
+		this.endPoint = new Point2D.Double();
+		
+		// The cable's signal is handled in the connectors' circuit
+		if (this.start != null)
+			this.circuit = this.start.getCircuit();
+		else if (this.end != null)
+			this.circuit = this.end.getCircuit();
+		else
+			this.circuit = new SignalCircuit();
+		this.circuitIndex = this.circuit.addCable(this);
 		
 		updateTransformations();
-		this.spritedrawer.setImageSpeed(0);
-		this.spritedrawer.setImageIndex(0);
 		
-		// Updates the signal status and informs the end connector (if possible)
-		if (this.start != null)
-			this.start.connectCable(this);
-		if (this.end != null)
-			this.end.connectCable(this);
+		// Connects the cable, which also updates the signal status
+		updateCircuitConnection();
 		
 		// Adds the object to the handler(s)
+		this.layer.addCable(this);
+		// Cables are found through the cable grid if there is one
 		if (area.getMouseHandler() != null)
-			area.getMouseHandler().addMouseListener(this);
+		{
+			if (getCableGrid() != null)
+				MouseDispatcher.getDispatcher(area).addIndexedMouseListener(
+						this, getCableGrid());
+			else
+				MouseDispatcher.getDispatcher(area).addMouseListener(this);
+		}
 		if (startConnector != null)
 			startConnector.getTransformationListenerHandler().addListener(this);
 		if (endConnector != null)
@@ -173,7 +193,8 @@ public class Cable extends DimensionalDrawnObject implements
 			// On left click the signal type is changed (if the cable has no input)
 			if (this.start == null && button == MouseButton.LEFT && 
 					eventType == MouseButtonEventType.PRESSED)
-				onSignalChange(!this.lastSignalStatus, null);
+				this.circuit.setCableSignal(this.circuitIndex, 
+						!getSignalStatus());
 			
 			return;
 		}
@@ -198,15 +219,14 @@ public class Cable extends DimensionalDrawnObject implements
 				if (newstart == null)
 				{
 					//System.out.println("Cable dies since start is null");
-					this.end.removeCable(this);
 					this.end = null;
 					kill();
 				}
 				else
 				{
 					this.start = newstart;
-					this.start.connectCable(this);
 					this.start.getTransformationListenerHandler().addListener(this);
+					updateCircuitConnection();
 				}
 			}
 			else //if (this.end == null)
@@ -218,19 +238,20 @@ public class Cable extends DimensionalDrawnObject implements
 				if (newend == null)
 				{
 					//System.out.println("Dies since end is null");
-					this.start.removeCable(this);
 					this.start = null;
 					kill();
 				}
 				else
 				{
 					this.end = newend;
-					this.end.connectCable(this);
 					this.end.getTransformationListenerHandler().addListener(this);
+					updateCircuitConnection();
 				}
 			}
 			
 			//System.out.println("Cable is still without end: " + (this.start == null) + ", " + (this.end == null));
+			
+			this.layer.onCableChange(this);
 		}
 		
 		// On mouse press removes the cable from either end
@@ -248,23 +269,24 @@ public class Cable extends DimensionalDrawnObject implements
 					mousePosition.getY(), this.start.getX(), this.start.getY()) 
 					< HelpMath.pointDistance(mousePosition.getX(), 
 					mousePosition.getY(), this.end.getX(), this.end.getY()))
-			{
-				this.start.removeCable(this);
 				this.start = null;
-			}
 			else
-			{
-				this.end.removeCable(this);
 				this.end = null;
-			}
+			updateCircuitConnection();
 			
 			setYScale(1);
+			this.layer.onCableChange(this);
 		}
 	}
 
 	@Override
 	public boolean listensPosition(Point2D.Double testedPosition)
 	{
+		// The exact collision is only checked if the cable is near the point
+		CableSegmentGrid grid = getCableGrid();
+		if (grid != null && !grid.isNear(this, testedPosition))
+			return false;
+		
 		return pointCollides(testedPosition);
 	}
 
@@ -285,6 +307,7 @@ public class Cable extends DimensionalDrawnObject implements
 			setYScale(GameSettings.interfaceScaleFactor);
 		else if (eventType == MousePositionEventType.EXIT)
 			setYScale(1);
+		this.layer.onCableChange(this);
 	}
 
 	@Override
@@ -310,67 +333,62 @@ public class Cable extends DimensionalDrawnObject implements
 	@Override
 	public int getWidth()
 	{
-		if (this.spritedrawer == null)
+		if (this.sprite == null)
 			return 0;
-		return this.spritedrawer.getSprite().getWidth();
+		return this.sprite.getWidth();
 	}
 
 	@Override
 	public int getHeight()
 	{
-		if (this.spritedrawer == null)
+		if (this.sprite == null)
 			return 0;
-		return (int) (this.spritedrawer.getSprite().getHeight() * 1.25);
+		return (int) (this.sprite.getHeight() * 1.25);
 	}
 
 	@Override
 	public int getOriginX()
 	{
-		if (this.spritedrawer == null)
+		if (this.sprite == null)
 			return 0;
-		return this.spritedrawer.getSprite().getOriginX();
+		return this.sprite.getOriginX();
 	}
 
 	@Override
 	public int getOriginY()
 	{
-		if (this.spritedrawer == null)
+		if (this.sprite == null)
 			return 0;
-		return this.spritedrawer.getSprite().getOriginY();
+		return this.sprite.getOriginY();
+	}
+
+	@Override
+	public void drawSelf(Graphics2D g2d)
+	{
+		// The cable is drawn by the cableLayer, so no transformations are 
+		// needed here
 	}
 
 	@Override
 	public void drawSelfBasic(Graphics2D g2d)
 	{
-		if (this.spritedrawer == null)
-			return;
-		this.spritedrawer.drawSprite(g2d, 0, 0);
+		// Cables are drawn by the cableLayer
 	}
 
 	@Override
 	public void onSignalChange(boolean newSignalStatus, SignalSender source)
 	{
-		// If the status is same as previously, does nothing
-		if (newSignalStatus == this.lastSignalStatus)
-			return;
-		
-		this.lastSignalStatus = newSignalStatus;
-		
-		// Changes sprite index
-		if (newSignalStatus)
-			this.spritedrawer.setImageIndex(1);
-		else
-			this.spritedrawer.setImageIndex(0);
-		
-		// Informs the end point about the change (if there is one)
-		if (this.end != null)
-			this.end.onSignalChange(newSignalStatus, this);
+		// The circuit delivers the signal to the end point, the cable only 
+		// updates its look
+		this.shownSignal = newSignalStatus;
+		this.layer.onCableChange(this);
 	}
 
 	@Override
 	public boolean getSignalStatus()
 	{
-		return this.lastSignalStatus;
+		// The signal is stored in the circuit
+		return this.circuit.getCableSignal(this.circuitIndex);
 	}
 	
 	@Override
@@ -402,16 +420,12 @@ public class Cable extends DimensionalDrawnObject implements
 	public void kill()
 	{
 		// Removes the cable from its connectors first
-		if (this.start != null)
-		{
-			this.start.removeCable(this);
-			this.start = null;
-		}
-		if (this.end != null)
-		{
-			this.end.removeCable(this);
-			this.end = null;
-		}
+		this.start = null;
+		this.end = null;
+		this.circuit.removeCable(this.circuitIndex);
+		if (getCableGrid() != null)
+			getCableGrid().removeCable(this);
+		this.layer.removeCable(this);
 		
 		super.kill();
 	}
@@ -444,6 +458,20 @@ public class Cable extends DimensionalDrawnObject implements
 		return start + "#" + end;
 	}
 	
+	// Informs the circuit about the cable's current start and end points
+	private void updateCircuitConnection()
+	{
+		int startIndex = -1;
+		int endIndex = -1;
+		
+		if (this.start != null)
+			startIndex = this.start.getCircuitIndex();
+		if (this.end != null)
+			endIndex = this.end.getCircuitIndex();
+		
+		this.circuit.connectCable(this.circuitIndex, startIndex, endIndex);
+	}
+	
 	// Updates the position and form of the cable
 	private void updateTransformations()
 	{
@@ -477,11 +505,63 @@ public class Cable extends DimensionalDrawnObject implements
 				endPoint = new Point2D.Double();
 		}
 		
+		this.startPoint = startPoint;
+		this.endPoint = endPoint;
+		if (this.layer != null)
+			this.layer.onCableChange(this);
+		
 		setPosition(startPoint);
 		setAngle(HelpMath.pointDirection(startPoint.getX(), startPoint.getY(), 
 				endPoint.getX(), endPoint.getY()));
 		setXScale(HelpMath.pointDistance(startPoint.getX(), startPoint.getY(), 
 				endPoint.getX(), endPoint.getY()) / (getWidth() - 2 * getOriginX()));
+		
+		// Updates the cable's place in the grid. The margin covers the 
+		// cable's width (even when it's enlarged) and the ends of the sprite
+		if (getCableGrid() != null && !isDead())
+			getCableGrid().updateCable(this, startPoint, endPoint, 
+					getHeight() * GameSettings.interfaceScaleFactor / 2 + 
+					getOriginX() * Math.abs(getXScale()));
+	}
+	
+	/**
+	 * @return The point where the cable starts from
+	 */
+	public Point2D.Double getStartPoint()
+	{
+		return this.startPoint;
+	}
+	
+	/**
+	 * @return The point where the cable ends to
+	 */
+	public Point2D.Double getEndPoint()
+	{
+		return this.endPoint;
+	}
+	
+	/**
+	 * @return The signal the cable is currently drawn with. This is the 
+	 * last signal the circuit has informed the cable about.
+	 */
+	public boolean getShownSignal()
+	{
+		return this.shownSignal;
+	}
+	
+	/**
+	 * @return Is the cable currently enlarged because the mouse is over it
+	 */
+	public boolean isHighlighted()
+	{
+		return getYScale() != 1;
+	}
+	
+	private CableSegmentGrid getCableGrid()
+	{
+		if (this.connectorRelay == null)
+			return null;
+		return this.connectorRelay.getCableGrid();
 	}
 	
 	private boolean isBeingDragged()
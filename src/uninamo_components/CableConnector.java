@@ -2,9 +2,10 @@ package uninamo_components;
 
 import genesis_logic.AdvancedMouseListener;
 
+import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.geom.Point2D;
-import java.util.ArrayList;
 
 import omega_gameplay.CollisionType;
 import omega_graphic.DimensionalDrawnObject;
@@ -15,6 +16,9 @@ import omega_graphic.TransformationListener;
 import omega_world.Area;
 import omega_world.Room;
 import omega_world.RoomListener;
+import uninamo_gameplaysupport.MouseDispatcher;
+import uninamo_gameplaysupport.StaticDrawable;
+import uninamo_gameplaysupport.StaticLayer;
 import uninamo_main.GameSettings;
 
 /**
@@ -28,15 +32,17 @@ import uninamo_main.GameSettings;
  */
 public abstract class CableConnector extends DimensionalDrawnObject implements
 		AdvancedMouseListener, TransformationListener, SignalSender, 
-		SignalReceiver, RoomListener
+		FlagReceiver, RoomListener, StaticDrawable
 {
 	// ATTRIBUTES	-----------------------------------------------------
 	
 	private MultiSpriteDrawer spritedrawer;
 	private Component host;
+	private ConnectorRelay relay;
 	private Point2D.Double relativePoint;
-	private ArrayList<Cable> connectedCables;
+	private StaticLayer staticLayer;
 	private boolean testing, testVersion;
+	private int circuitIndex;
 	
 	
 	// CONSTRUCTOR	-----------------------------------------------------
@@ -62,6 +68,7 @@ public abstract class CableConnector extends DimensionalDrawnObject implements
 		// Initializes attributes
 		this.relativePoint = new Point2D.Double(relativex, relativey);
 		this.host = host;
+		this.relay = relay;
 		this.testVersion = isForTesting;
 		
 		Sprite[] sprites = new Sprite[2];
@@ -71,7 +78,10 @@ public abstract class CableConnector extends DimensionalDrawnObject implements
 				"components").getSprite("outputconnector");
 		
 		this.spritedrawer = new MultiSpriteDrawer(sprites, null, this);
-		this.connectedCables = new ArrayList<Cable>();
+		
+		// The connector's signal is handled in the host's circuit, the 
+		// connector only mirrors it
+		this.circuitIndex = host.getCircuit().addConnector(this);
 		
 		// Updates radius
 		setRadius(2 * this.spritedrawer.getSprite().getWidth() / 3);
@@ -83,9 +93,14 @@ public abstract class CableConnector extends DimensionalDrawnObject implements
 		
 		// Adds the object to the handler(s)
 		if (area.getMouseHandler() != null)
-			area.getMouseHandler().addMouseListener(this);
+			MouseDispatcher.getDispatcher(area).addMouseListener(this);
 		if (relay != null)
 			relay.addConnector(this);
+		if (!isForTesting && GameSettings.dirtyRegionDrawing)
+		{
+			this.staticLayer = StaticLayer.getLayer(area);
+			this.staticLayer.addStaticDrawable(this);
+		}
 	
 		host.getTransformationListenerHandler().addListener(this);
 	}
@@ -182,12 +197,30 @@ public abstract class CableConnector extends DimensionalDrawnObject implements
 		return this.spritedrawer.getSprite().getOriginY();
 	}
 
+	@Override
+	public void drawSelf(Graphics2D g2d)
+	{
+		// While the connector is static, it is drawn from the staticLayer
+		if (this.staticLayer != null && isStatic() && 
+				!this.staticLayer.isCaching())
+			return;
+		
+		super.drawSelf(g2d);
+	}
+
 	@Override
 	public void drawSelfBasic(Graphics2D g2d)
 	{
 		if (this.spritedrawer == null)
 			return;
 		this.spritedrawer.drawSprite(g2d, 0, 0);
+		
+		// Connectors in signal loops are circled
+		if (getCircuit().isConnectorFlagged(this.circuitIndex))
+		{
+			g2d.setColor(Color.RED);
+			g2d.drawOval(0, 0, getWidth(), getHeight());
+		}
 	}
 	
 	@Override
@@ -244,75 +277,100 @@ public abstract class CableConnector extends DimensionalDrawnObject implements
 	{
 		super.kill();
 		
-		// Also kills the connected cables
-		for (Cable cable : this.connectedCables)
+		// Also kills the connected cables. The circuit knows which cables 
+		// are attached to the connector
+		SignalCircuit circuit = getCircuit();
+		int[] cables = circuit.getConnectedCables(this.circuitIndex);
+		for (int i = 0; i < cables.length; i++)
 		{
-			cable.kill();
+			SignalReceiver mirror = circuit.getCableMirror(cables[i]);
+			if (mirror instanceof Cable)
+				((Cable) mirror).kill();
 		}
+		
+		// And removes the connector from the circuit and the relay
+		getCircuit().removeConnector(this.circuitIndex);
+		if (this.relay != null)
+			this.relay.removeConnector(this);
+		if (this.staticLayer != null)
+			this.staticLayer.removeStaticDrawable(this);
+	}
+	
+	@Override
+	public boolean isStatic()
+	{
+		// Connectors move with their host. The connectors in signal loops are 
+		// always drawn separately so that the marking stays up to date
+		return this.host.isStatic() && 
+				!getCircuit().isConnectorFlagged(this.circuitIndex);
+	}
+	
+	@Override
+	public Rectangle getDrawBounds()
+	{
+		return StaticLayer.getDrawBounds(this, getWidth(), getHeight(), 2);
+	}
+	
+	@Override
+	public void onFlagChange(boolean flagged)
+	{
+		// Flagged connectors aren't static and are circled
+		invalidateStaticLook();
 	}
 
 	
 	// OTHER METHODS	--------------------------------------------------
 	
 	/**
-	 * @return The component the connector is connected to
+	 * @return The signalCircuit that processes the connector's signal
 	 */
-	protected Component getHost()
+	public SignalCircuit getCircuit()
 	{
-		return this.host;
+		return this.host.getCircuit();
 	}
 	
 	/**
-	 * @return The spriteDrawer the connector uses
+	 * @return The index of the connector in the connector's circuit
 	 */
-	protected MultiSpriteDrawer getSpriteDrawer()
+	public int getCircuitIndex()
 	{
-		return this.spritedrawer;
+		return this.circuitIndex;
 	}
 	
 	/**
-	 * Returns a cable from the list of connected cables
-	 * 
-	 * @param index The index of the cable in the list (starts from 0)
-	 * @return A cable with the given index or null if no such index exists
+	 * @return The component the connector is connected to
 	 */
-	protected Cable getCable(int index)
+	protected Component getHost()
 	{
-		if (index >= 0 && index < this.connectedCables.size())
-			return this.connectedCables.get(index);
-		else
-			return null;
+		return this.host;
 	}
 	
 	/**
-	 * Connects a new cable to the cable connector
-	 * 
-	 * @param c The cable to be connected
+	 * @return The spriteDrawer the connector uses
 	 */
-	public void connectCable(Cable c)
+	protected MultiSpriteDrawer getSpriteDrawer()
 	{
-		if (!this.connectedCables.contains(c))
-			this.connectedCables.add(c);
+		return this.spritedrawer;
 	}
 	
 	/**
-	 * Removes a cable from the connector
-	 * @param c The cable to be removed from the connector
+	 * Informs the staticLayer that the connector's looks have changed or 
+	 * that it has started or stopped being static
 	 */
-	public void removeCable(Cable c)
+	protected void invalidateStaticLook()
 	{
-		// If the component is dead, it is probably already removing the 
-		// cables
-		if (!isDead() && this.connectedCables.contains(c))
-			this.connectedCables.remove(c);
+		if (this.staticLayer != null)
+			this.staticLayer.invalidate(this);
 	}
 	
 	/**
-	 * @return How many cables are connected to this connector
+	 * Updates the connector's ID in the relay's index. This should be called 
+	 * each time the connector's ID changes.
 	 */
-	protected int getCableAmount()
+	void updateRelayID()
 	{
-		return this.connectedCables.size();
+		if (this.relay != null)
+			this.relay.updateConnectorID(this);
 	}
 	
 	/**
@@ -337,5 +395,9 @@ public abstract class CableConnector extends DimensionalDrawnObject implements
 	{
 		Point2D.Double newPosition = this.host.transform(this.relativePoint);
 		setPosition(newPosition.getX(), newPosition.getY());
+		
+		// The relay keeps track of the connector's position
+		if (this.relay != null)
+			this.relay.updateConnectorPosition(this);
 	}
 }
@@ -0,0 +1,336 @@
+package uninamo_components;
+
+import genesis_graphic.DepthConstants;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Stroke;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import omega_world.Area;
+import uninamo_gameplaysupport.StaticDrawable;
+import uninamo_gameplaysupport.StaticLayer;
+import uninamo_main.GameSettings;
+
+/**
+ * CableLayer draws all the cables in an area in a single pass. The cables
+ * are collected into two paths, one for the cables with a true signal and
+ * one for the cables with a false signal, and both paths are drawn with a
+ * single stroke. The paths are only rebuilt when a cable has changed. The 
+ * layer can also be drawn from a staticLayer, in which case only the 
+ * regions of the changed cables are redrawn.
+ *
+ * @author Mikko Hilpinen
+ * @since 5.4.2014
+ * @see Cable
+ */
+public class CableLayer implements StaticDrawable
+{
+	// ATTRIBUTES	------------------------------------------------------
+	
+	private static final Color TRUECOLOR = new Color(150, 255, 125);
+	private static final Color FALSECOLOR = new Color(214, 0, 0);
+	private static final float CABLEWIDTH = 7;
+	
+	private ArrayList<Cable> cables;
+	private HashMap<Cable, Rectangle> cableBounds;
+	private StaticLayer staticLayer;
+	private Path2D.Double truePath, falsePath;
+	private Stroke stroke, highlightStroke;
+	private boolean visible, dead, changed, wasStatic;
+	private int depth;
+	
+	private static HashMap<Area, CableLayer> layers =
+			new HashMap<Area, CableLayer>();
+	
+	
+	// CONSTRUCTOR	------------------------------------------------------
+	
+	private CableLayer(Area area)
+	{
+		// Initializes attributes
+		this.cables = new ArrayList<Cable>();
+		this.cableBounds = new HashMap<Cable, Rectangle>();
+		this.staticLayer = null;
+		this.truePath = new Path2D.Double();
+		this.falsePath = new Path2D.Double();
+		this.stroke = new BasicStroke(CABLEWIDTH, BasicStroke.CAP_BUTT,
+				BasicStroke.JOIN_MITER);
+		this.highlightStroke = new BasicStroke((float) (CABLEWIDTH *
+				GameSettings.interfaceScaleFactor), BasicStroke.CAP_BUTT,
+				BasicStroke.JOIN_MITER);
+		this.visible = true;
+		this.dead = false;
+		this.changed = false;
+		this.wasStatic = true;
+		this.depth = DepthConstants.NORMAL - 5;
+		
+		// Adds the object to the handler(s)
+		if (area.getDrawer() != null)
+			area.getDrawer().addDrawable(this);
+	}
+	
+	
+	// IMPLEMENTED METHODS	---------------------------------------------
+	
+	@Override
+	public boolean isDead()
+	{
+		return this.dead;
+	}
+	
+	@Override
+	public void kill()
+	{
+		this.dead = true;
+		this.cables.clear();
+		this.cableBounds.clear();
+	}
+	
+	@Override
+	public void drawSelf(Graphics2D g2d)
+	{
+		// While the cables are static, they are drawn from the staticLayer
+		if (this.staticLayer != null && isStatic() && 
+				!this.staticLayer.isCaching())
+			return;
+		
+		// Rebuilds the paths if the cables have changed since the last draw
+		if (this.changed)
+			updatePaths();
+		
+		Stroke lastStroke = g2d.getStroke();
+		Color lastColor = g2d.getColor();
+		
+		g2d.setStroke(this.stroke);
+		g2d.setColor(FALSECOLOR);
+		g2d.draw(this.falsePath);
+		g2d.setColor(TRUECOLOR);
+		g2d.draw(this.truePath);
+		
+		// The highlighted cables (usually only the one under the mouse) are
+		// drawn separately on top of the others
+		g2d.setStroke(this.highlightStroke);
+		for (Cable cable : this.cables)
+		{
+			if (!cable.isHighlighted() || !cable.isVisible())
+				continue;
+			
+			if (cable.getShownSignal())
+				g2d.setColor(TRUECOLOR);
+			else
+				g2d.setColor(FALSECOLOR);
+			g2d.draw(new Line2D.Double(cable.getStartPoint(),
+					cable.getEndPoint()));
+		}
+		
+		g2d.setStroke(lastStroke);
+		g2d.setColor(lastColor);
+	}
+	
+	@Override
+	public boolean isVisible()
+	{
+		return this.visible;
+	}
+	
+	@Override
+	public void setVisible()
+	{
+		this.visible = true;
+	}
+	
+	@Override
+	public void setInvisible()
+	{
+		this.visible = false;
+	}
+	
+	@Override
+	public boolean isStatic()
+	{
+		// The cables are drawn separately while one of them is being dragged
+		return !Cable.cableIsBeingDragged;
+	}
+	
+	@Override
+	public Rectangle getDrawBounds()
+	{
+		// The cables may cover any part of the area
+		return null;
+	}
+	
+	@Override
+	public int getDepth()
+	{
+		return this.depth;
+	}
+	
+	@Override
+	public boolean setDepth(int depth)
+	{
+		this.depth = depth;
+		return true;
+	}
+	
+	
+	// OTHER METHODS	-------------------------------------------------
+	
+	/**
+	 * Returns the layer that draws the cables in the given area. A new layer
+	 * is created if the area doesn't have one yet.
+	 *
+	 * @param area The area the layer draws the cables in
+	 * @return The layer that draws the cables in the area
+	 */
+	public static CableLayer getLayer(Area area)
+	{
+		CableLayer layer = layers.get(area);
+		if (layer == null || layer.isDead())
+		{
+			layer = new CableLayer(area);
+			layers.put(area, layer);
+		}
+		
+		return layer;
+	}
+	
+	/**
+	 * Makes the cables be drawn from the given staticLayer while none of them 
+	 * is being dragged
+	 *
+	 * @param staticLayer The staticLayer that will draw the cables
+	 */
+	public void setStaticLayer(StaticLayer staticLayer)
+	{
+		if (this.staticLayer != null)
+			this.staticLayer.removeStaticDrawable(this);
+		
+		this.staticLayer = staticLayer;
+		this.wasStatic = isStatic();
+		if (this.staticLayer != null)
+			this.staticLayer.addStaticDrawable(this);
+	}
+	
+	/**
+	 * Adds a new cable to the drawn cables
+	 *
+	 * @param cable The cable that will be drawn by the layer
+	 */
+	public void addCable(Cable cable)
+	{
+		if (!this.cables.contains(cable))
+		{
+			this.cables.add(cable);
+			this.changed = true;
+			
+			Rectangle bounds = getCableBounds(cable);
+			this.cableBounds.put(cable, bounds);
+			damage(bounds);
+		}
+	}
+	
+	/**
+	 * Removes a cable from the drawn cables
+	 *
+	 * @param cable The cable that will no longer be drawn by the layer
+	 */
+	public void removeCable(Cable cable)
+	{
+		if (this.cables.remove(cable))
+		{
+			this.changed = true;
+			damage(this.cableBounds.remove(cable));
+		}
+		
+		checkStaticState();
+	}
+	
+	/**
+	 * Informs the layer that one of its cables has moved, changed its signal 
+	 * or started or stopped being dragged. The paths are rebuilt before the 
+	 * next draw.
+	 *
+	 * @param cable The cable that has changed
+	 */
+	public void onCableChange(Cable cable)
+	{
+		this.changed = true;
+		
+		// Damages the area where the cable was and where it is now
+		if (this.cableBounds.containsKey(cable))
+		{
+			damage(this.cableBounds.get(cable));
+			
+			Rectangle bounds = getCableBounds(cable);
+			this.cableBounds.put(cable, bounds);
+			damage(bounds);
+		}
+		
+		checkStaticState();
+	}
+	
+	private void damage(Rectangle area)
+	{
+		// Only the parts drawn from the staticLayer need to be redrawn there
+		if (this.staticLayer != null && this.wasStatic && area != null)
+			this.staticLayer.invalidate(area);
+	}
+	
+	private void checkStaticState()
+	{
+		// When the cables start or stop being static, the whole layer 
+		// is redrawn
+		if (isStatic() != this.wasStatic)
+		{
+			this.wasStatic = isStatic();
+			if (this.staticLayer != null)
+				this.staticLayer.invalidate(this);
+		}
+	}
+	
+	private static Rectangle getCableBounds(Cable cable)
+	{
+		Point2D.Double start = cable.getStartPoint();
+		Point2D.Double end = cable.getEndPoint();
+		int margin = (int) Math.ceil(CABLEWIDTH * 
+				GameSettings.interfaceScaleFactor / 2) + 2;
+		
+		int x = (int) Math.floor(Math.min(start.getX(), end.getX())) - margin;
+		int y = (int) Math.floor(Math.min(start.getY(), end.getY())) - margin;
+		int maxX = (int) Math.ceil(Math.max(start.getX(), end.getX())) + margin;
+		int maxY = (int) Math.ceil(Math.max(start.getY(), end.getY())) + margin;
+		
+		return new Rectangle(x, y, maxX - x, maxY - y);
+	}
+	
+	// Collects the cables into the two paths
+	private void updatePaths()
+	{
+		this.truePath.reset();
+		this.falsePath.reset();
+		
+		for (Cable cable : this.cables)
+		{
+			if (cable.isHighlighted() || !cable.isVisible())
+				continue;
+			
+			Path2D.Double path = this.falsePath;
+			if (cable.getShownSignal())
+				path = this.truePath;
+			
+			Point2D.Double start = cable.getStartPoint();
+			Point2D.Double end = cable.getEndPoint();
+			path.moveTo(start.getX(), start.getY());
+			path.lineTo(end.getX(), end.getY());
+		}
+		
+		this.changed = false;
+	}
+}
@@ -0,0 +1,190 @@
+package uninamo_components;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import uninamo_gameplaysupport.MouseListenerIndex;
+
+/**
+ * CableSegmentGrid places cables in a uniform grid based on the line segment
+ * each cable covers. The grid can tell which cables may be near a point, so
+ * the exact collision only needs to be checked for a few cables. The grid 
+ * also tells the mouseDispatcher which cables are near the mouse.
+ *
+ * @author Mikko Hilpinen
+ * @since 2.4.2014
+ * @see Cable
+ */
+public class CableSegmentGrid implements MouseListenerIndex
+{
+	// ATTRIBUTES	-----------------------------------------------------
+	
+	private HashMap<Long, ArrayList<Cable>> cells;
+	private HashMap<Cable, long[]> cableCells;
+	
+	private static final int CELLSIZE = 64;
+	
+	
+	// CONSTRUCTOR	-----------------------------------------------------
+	
+	/**
+	 * Creates a new empty grid
+	 */
+	public CableSegmentGrid()
+	{
+		// Initializes attributes
+		this.cells = new HashMap<Long, ArrayList<Cable>>();
+		this.cableCells = new HashMap<Cable, long[]>();
+	}
+	
+	
+	// IMPLEMENTED METHODS	---------------------------------------------
+	
+	@Override
+	public List<Cable> getListenersNear(Point2D.Double position)
+	{
+		List<Cable> cables = this.cells.get(getCellKey(
+				getCell(position.getX()), getCell(position.getY())));
+		
+		if (cables == null)
+			return new ArrayList<Cable>();
+		return cables;
+	}
+	
+	
+	// OTHER METHODS	-------------------------------------------------
+	
+	/**
+	 * Places the cable to the cells its segment touches. This should be
+	 * called each time the cable moves or changes its form.
+	 *
+	 * @param cable The cable that is updated
+	 * @param start The position where the cable starts
+	 * @param end The position where the cable ends
+	 * @param margin How far from the segment the cable may still collide
+	 * with a point
+	 */
+	public void updateCable(Cable cable, Point2D.Double start,
+			Point2D.Double end, double margin)
+	{
+		removeCable(cable);
+		
+		int minX = getCell(Math.min(start.getX(), end.getX()) - margin);
+		int maxX = getCell(Math.max(start.getX(), end.getX()) + margin);
+		int minY = getCell(Math.min(start.getY(), end.getY()) - margin);
+		int maxY = getCell(Math.max(start.getY(), end.getY()) + margin);
+		
+		// Only the cells the segment actually passes are used. A cell is
+		// close enough if its center is within half a diagonal (+ margin)
+		// from the segment
+		double reach = CELLSIZE * Math.sqrt(0.5) + margin;
+		long[] keys = new long[(maxX - minX + 1) * (maxY - minY + 1)];
+		int keyAmount = 0;
+		
+		for (int x = minX; x <= maxX; x++)
+		{
+			for (int y = minY; y <= maxY; y++)
+			{
+				if (getSegmentDistance(start, end, (x + 0.5) * CELLSIZE,
+						(y + 0.5) * CELLSIZE) > reach)
+					continue;
+				
+				long key = getCellKey(x, y);
+				keys[keyAmount ++] = key;
+				
+				ArrayList<Cable> cables = this.cells.get(key);
+				if (cables == null)
+				{
+					cables = new ArrayList<Cable>();
+					this.cells.put(key, cables);
+				}
+				cables.add(cable);
+			}
+		}
+		
+		this.cableCells.put(cable, keyAmount == keys.length ? keys :
+				Arrays.copyOf(keys, keyAmount));
+	}
+	
+	/**
+	 * Removes the cable from the grid
+	 *
+	 * @param cable The cable that is removed
+	 */
+	public void removeCable(Cable cable)
+	{
+		long[] keys = this.cableCells.remove(cable);
+		if (keys == null)
+			return;
+		
+		for (int i = 0; i < keys.length; i++)
+		{
+			ArrayList<Cable> cables = this.cells.get(keys[i]);
+			if (cables == null)
+				continue;
+			
+			cables.remove(cable);
+			if (cables.isEmpty())
+				this.cells.remove(keys[i]);
+		}
+	}
+	
+	/**
+	 * Checks if the cable may collide with the given point
+	 *
+	 * @param cable The cable that is checked
+	 * @param point The point that is checked
+	 * @return Is the cable in the same cell as the point
+	 */
+	public boolean isNear(Cable cable, Point2D.Double point)
+	{
+		ArrayList<Cable> cables = this.cells.get(getCellKey(
+				getCell(point.getX()), getCell(point.getY())));
+		
+		return cables != null && cables.contains(cable);
+	}
+	
+	/**
+	 * @param point A point in the grid
+	 * @return The cables that may collide with the given point
+	 */
+	public ArrayList<Cable> getCablesNear(Point2D.Double point)
+	{
+		ArrayList<Cable> cables = this.cells.get(getCellKey(
+				getCell(point.getX()), getCell(point.getY())));
+		
+		if (cables == null)
+			return new ArrayList<Cable>();
+		return new ArrayList<Cable>(cables);
+	}
+	
+	private static double getSegmentDistance(Point2D.Double start,
+			Point2D.Double end, double x, double y)
+	{
+		double dx = end.getX() - start.getX();
+		double dy = end.getY() - start.getY();
+		double lengthSquared = dx * dx + dy * dy;
+		
+		// Finds the closest point on the segment
+		double t = 0;
+		if (lengthSquared > 0)
+			t = Math.max(0, Math.min(1, ((x - start.getX()) * dx +
+					(y - start.getY()) * dy) / lengthSquared));
+		
+		return Point2D.distance(x, y, start.getX() + t * dx,
+				start.getY() + t * dy);
+	}
+	
+	private static int getCell(double coordinate)
+	{
+		return (int) Math.floor(coordinate / CELLSIZE);
+	}
+	
+	private static long getCellKey(int cellX, int cellY)
+	{
+		return ((long) cellX << 32) | (cellY & 0xffffffffL);
+	}
+}
@@ -3,6 +3,8 @@ package uninamo_components;
 import genesis_graphic.DepthConstants;
 
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
 import java.util.Random;
 
 import omega_gameplay.CollisionType;
@@ -12,7 +14,10 @@ import omega_graphic.SingleSpriteDrawer;
 import omega_world.Area;
 import omega_world.Room;
 import omega_world.RoomListener;
+import uninamo_gameplaysupport.StaticDrawable;
+import uninamo_gameplaysupport.StaticLayer;
 import uninamo_gameplaysupport.TestHandler;
+import uninamo_main.GameSettings;
 
 /**
  * Components are key elements in the game. Components can be placed on the 
@@ -24,7 +29,7 @@ import uninamo_gameplaysupport.TestHandler;
  * @since 8.3.2014
  */
 public abstract class Component extends DimensionalDrawnObject implements
-		SignalReceiver, SignalSender, RoomListener
+		SignalReceiver, SignalSender, RoomListener, StaticDrawable
 {
 	// ATTRIBUTES	------------------------------------------------------
 	
@@ -32,6 +37,13 @@ public abstract class Component extends DimensionalDrawnObject implements
 	private SingleSpriteDrawer spritedrawer;
 	private InputCableConnector[] inputs;
 	private OutputCableConnector[] outputs;
+	private SignalCircuit circuit;
+	private StaticLayer staticLayer;
+	private int gateIndex;
+	private double heightScale;
+	
+	// How far apart the connectors must be so that they don't overlap
+	private static final int CONNECTORSPACING = 20;
 	
 	private static int componentsCreated = 0;
 	
@@ -47,19 +59,22 @@ public abstract class Component extends DimensionalDrawnObject implements
 	 * @param testHandler The testHandler that will inform the object about test 
 	 * events
 	 * @param connectorRelay A connectorRelay that will keep track of the 
-	 * connectors
+	 * connectors. The component's signals are processed in the relay's 
+	 * circuit. If no relay is provided, the component uses a circuit of its own.
 	 * @param spritename The name of the component sprite used to draw the 
 	 * component
 	 * @param inputs How many input connectors the component has
 	 * @param outputs How many output connectors the component has
+	 * @param gateType How the circuit calculates the component's outputs from 
+	 * its inputs. External components set their outputs themselves.
 	 * @param fromBox Was the component created by pulling it from a componentBox
 	 * @param isForTesting If this is true, the component will go to test mode 
 	 * where it won't react to mouse but will create test cables to its connectors
 	 */
 	public Component(Area area, int x, int y, TestHandler testHandler, 
 			ConnectorRelay connectorRelay, 
-			String spritename, int inputs, int outputs, boolean fromBox, 
-			boolean isForTesting)
+			String spritename, int inputs, int outputs, GateType gateType, 
+			boolean fromBox, boolean isForTesting)
 	{
 		super(x, y, DepthConstants.NORMAL, false, CollisionType.BOX, area);
 		
@@ -67,8 +82,17 @@ public abstract class Component extends DimensionalDrawnObject implements
 		this.spritedrawer = new SingleSpriteDrawer(
 				OpenSpriteBank.getSpriteBank("components").getSprite(
 				spritename), area.getActorHandler(), this);
+		// Components with many connectors are stretched so that the 
+		// connectors fit on them
+		this.heightScale = Math.max(1, (Math.max(inputs, outputs) + 1) * 
+				CONNECTORSPACING / 
+				(double) this.spritedrawer.getSprite().getHeight());
 		this.inputs = new InputCableConnector[inputs];
 		this.outputs = new OutputCableConnector[outputs];
+		if (connectorRelay != null)
+			this.circuit = connectorRelay.getCircuit();
+		else
+			this.circuit = new SignalCircuit();
 		
 		// Generates the id
 		// TODO: There's still a small chance that two components will have the 
@@ -90,8 +114,29 @@ public abstract class Component extends DimensionalDrawnObject implements
 					relativey, testHandler, connectorRelay, this, i, isForTesting);
 		}
 		
+		// Registers the component's logic to the circuit
+		int[] inputIndices = new int[inputs];
+		int[] outputIndices = new int[outputs];
+		for (int i = 0; i < inputs; i++)
+		{
+			inputIndices[i] = this.inputs[i].getCircuitIndex();
+		}
+		for (int i = 0; i < outputs; i++)
+		{
+			outputIndices[i] = this.outputs[i].getCircuitIndex();
+		}
+		this.gateIndex = this.circuit.addGate(gateType, inputIndices, 
+				outputIndices);
+		
 		// Resets the transform status
 		forceTransformationUpdate();
+		
+		// Adds the object to the handler(s)
+		if (!isForTesting && GameSettings.dirtyRegionDrawing)
+		{
+			this.staticLayer = StaticLayer.getLayer(area);
+			this.staticLayer.addStaticDrawable(this);
+		}
 	}
 	
 	
@@ -117,7 +162,8 @@ public abstract class Component extends DimensionalDrawnObject implements
 	{
 		if (this.spritedrawer == null)
 			return 0;
-		return this.spritedrawer.getSprite().getHeight();
+		return (int) (this.spritedrawer.getSprite().getHeight() * 
+				this.heightScale);
 	}
 
 	@Override
@@ -133,7 +179,19 @@ public abstract class Component extends DimensionalDrawnObject implements
 	{
 		if (this.spritedrawer == null)
 			return 0;
-		return this.spritedrawer.getSprite().getOriginY();
+		return (int) (this.spritedrawer.getSprite().getOriginY() * 
+				this.heightScale);
+	}
+
+	@Override
+	public void drawSelf(Graphics2D g2d)
+	{
+		// While the component is static, it is drawn from the staticLayer
+		if (this.staticLayer != null && isStatic() && 
+				!this.staticLayer.isCaching())
+			return;
+		
+		super.drawSelf(g2d);
 	}
 
 	@Override
@@ -142,7 +200,10 @@ public abstract class Component extends DimensionalDrawnObject implements
 		// Draws the sprite
 		if (this.spritedrawer == null)
 			return;
+		AffineTransform lastTransform = g2d.getTransform();
+		g2d.scale(1, this.heightScale);
 		this.spritedrawer.drawSprite(g2d, 0, 0);
+		g2d.setTransform(lastTransform);
 	}
 	
 	@Override
@@ -161,6 +222,9 @@ public abstract class Component extends DimensionalDrawnObject implements
 	@Override
 	public void kill()
 	{
+		// Removes the component's logic from the circuit
+		this.circuit.removeGate(this.gateIndex);
+		
 		// Also kills the connectors
 		for (CableConnector connector : this.inputs)
 		{
@@ -173,10 +237,28 @@ public abstract class Component extends DimensionalDrawnObject implements
 			connector.kill();
 		}
 		
+		if (this.staticLayer != null)
+			this.staticLayer.removeStaticDrawable(this);
+		
 		super.kill();
 	}
 	
 	
+	@Override
+	public boolean isStatic()
+	{
+		// Components don't change their looks by default
+		return true;
+	}
+	
+	@Override
+	public Rectangle getDrawBounds()
+	{
+		return StaticLayer.getDrawBounds(this, getWidth(), getHeight(), 
+				getDrawMargin());
+	}
+	
+	
 	// GETTERS & SETTERS	---------------------------------------------
 	
 	/**
@@ -188,9 +270,77 @@ public abstract class Component extends DimensionalDrawnObject implements
 		return this.id;
 	}
 	
+	/**
+	 * @return The signalCircuit that processes the component's signals
+	 */
+	public SignalCircuit getCircuit()
+	{
+		return this.circuit;
+	}
+	
+	/**
+	 * @return The connectors of the component, inputs first
+	 */
+	protected CableConnector[] getConnectors()
+	{
+		CableConnector[] connectors = 
+				new CableConnector[this.inputs.length + this.outputs.length];
+		System.arraycopy(this.inputs, 0, connectors, 0, this.inputs.length);
+		System.arraycopy(this.outputs, 0, connectors, this.inputs.length, 
+				this.outputs.length);
+		
+		return connectors;
+	}
+	
+	/**
+	 * @return How many pixels the component may draw outside its sprite
+	 */
+	protected int getDrawMargin()
+	{
+		return 2;
+	}
+	
 	
 	// OTHER METHODS	-------------------------------------------------
 	
+	/**
+	 * Informs the staticLayer that the component's looks have changed or 
+	 * that it has started or stopped being static. The component's 
+	 * connectors are informed as well. Subclasses should call this whenever 
+	 * the return value of {@link #isStatic()} changes.
+	 */
+	protected void invalidateStaticLook()
+	{
+		if (this.staticLayer != null)
+			this.staticLayer.invalidate(this);
+		
+		for (CableConnector connector : getConnectors())
+		{
+			connector.invalidateStaticLook();
+		}
+	}
+	
+	/**
+	 * Updates the IDs of the component's connectors in their relay. This 
+	 * should be called each time the component's ID changes.
+	 */
+	protected void updateConnectorIDs()
+	{
+		for (CableConnector connector : getConnectors())
+		{
+			connector.updateRelayID();
+		}
+	}
+	
+	/**
+	 * Returns the component's logic to its initial state. This only affects 
+	 * components whose logic has a state of its own (counters, for example).
+	 */
+	protected void resetGate()
+	{
+		this.circuit.resetGate(this.gateIndex);
+	}
+	
 	/**
 	 * Informs a specific output about a signal change
 	 * 
@@ -206,7 +356,8 @@ public abstract class Component extends DimensionalDrawnObject implements
 			return;
 		}
 		
-		this.outputs[index].onSignalChange(signal, this);
+		this.circuit.setOutputSignal(this.outputs[index].getCircuitIndex(), 
+				signal);
 	}
 	
 	/**
@@ -217,7 +368,8 @@ public abstract class Component extends DimensionalDrawnObject implements
 	{
 		for (int i = 0; i < this.outputs.length; i++)
 		{
-			this.outputs[i].onSignalChange(signal, this);
+			this.circuit.setOutputSignal(this.outputs[i].getCircuitIndex(), 
+					signal);
 		}
 	}
 	
@@ -256,6 +408,27 @@ public abstract class Component extends DimensionalDrawnObject implements
 			return false;
 		}
 		
-		return this.inputs[index].getSignalStatus();
+		return this.circuit.getConnectorSignal(
+				this.inputs[index].getCircuitIndex());
+	}
+	
+	/**
+	 * Returns the signal status of the output with the given index
+	 * 
+	 * @param index The index of the questioned output
+	 * @return The signal the output is sending. Returns false if no such 
+	 * output exists.
+	 */
+	protected boolean getOutputStatus(int index)
+	{
+		if (index < 0 || index >= this.outputs.length)
+		{
+			System.err.println("The component doesn't have output with index " 
+					+ index);
+			return false;
+		}
+		
+		return this.circuit.getConnectorSignal(
+				this.outputs[index].getCircuitIndex());
 	}
 }
@@ -9,7 +9,9 @@ import java.awt.geom.Point2D;
 
 import omega_graphic.OpenSpriteBank;
 import omega_world.Area;
+import uninamo_gameplaysupport.MouseDispatcher;
 import uninamo_gameplaysupport.TestHandler;
+import uninamo_gameplaysupport.TextCache;
 import uninamo_gameplaysupport.TurnHandler;
 import uninamo_main.GameSettings;
 import uninamo_userinterface.CurrentCostDrawer;
@@ -74,6 +76,10 @@ public class ComponentBox extends AbstractButton
 		
 		getSpriteDrawer().setImageSpeed(0);
 		getSpriteDrawer().setImageIndex(0);
+		
+		// The button is informed through the area's mouseDispatcher
+		if (area.getMouseHandler() != null)
+			MouseDispatcher.getDispatcher(area).takeMouseListener(this);
 	}
 	
 	
@@ -124,7 +130,7 @@ public class ComponentBox extends AbstractButton
 		// Also draws the text
 		g2d.setFont(GameSettings.basicFont);
 		g2d.setColor(Color.WHITE);
-		g2d.drawString(this.componentType.toString(), 5, 28);
+		TextCache.drawString(g2d, this.componentType.toString(), 5, 28);
 	}
 	
 	
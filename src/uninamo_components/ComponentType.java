@@ -26,7 +26,66 @@ public enum ComponentType
 	/**
 	 * Power sends TRUE
 	 */
-	POWER;
+	POWER,
+	/**
+	 * And component sends TRUE when both of its inputs receive TRUE
+	 */
+	AND,
+	/**
+	 * Nand component sends TRUE unless both of its inputs receive TRUE
+	 */
+	NAND,
+	/**
+	 * Nor component sends TRUE when neither of its inputs receive TRUE
+	 */
+	NOR,
+	/**
+	 * Exor component sends TRUE when exactly one of its inputs receives TRUE
+	 */
+	EXOR,
+	/**
+	 * Exnor component sends TRUE when both or neither of its inputs receive 
+	 * TRUE
+	 */
+	EXNOR,
+	/**
+	 * Inverter sends the opposite of the signal it receives
+	 */
+	INVERTER,
+	/**
+	 * Latch sends TRUE after a TRUE pulse until it is reset
+	 */
+	LATCH,
+	/**
+	 * FlipFlop switches its outputs each time it receives a TRUE pulse
+	 */
+	FLIPFLOP,
+	/**
+	 * Bistable switches its outputs after a TRUE pulse until it is reset
+	 */
+	BISTABLE,
+	/**
+	 * Relay directs a signal to one of its two outputs
+	 */
+	RELAY,
+	/**
+	 * Counter counts TRUE pulses and sends TRUE from the matching output
+	 */
+	COUNTER,
+	/**
+	 * Hardcore counter counts TRUE pulses and sends the count as a binary 
+	 * number
+	 */
+	HCCOUNTER,
+	/**
+	 * Delay sends TRUE for a while after it receives a TRUE pulse
+	 */
+	DELAY,
+	/**
+	 * Binary converter sends TRUE from the output matching the binary number 
+	 * it receives
+	 */
+	BINARY;
 	
 	
 	// METHODS	---------------------------------------------------------
@@ -56,15 +115,21 @@ public enum ComponentType
 			NormalComponentRelay componentRelay, CurrentCostDrawer costDrawer, 
 			TurnHandler turnHandler, boolean isTestComponent)
 	{
+		// Logic components only differ by their gateType
+		if (getGateType() != GateType.EXTERNAL)
+			return new LogicComponent(area, x, y, testHandler, connectorRelay, 
+					componentRelay, costDrawer, this, isTestComponent);
+		
 		switch (this)
 		{
-			case OR: return new OrComponent(area, x, y, testHandler, connectorRelay, 
-					componentRelay, costDrawer, isTestComponent);
 			case PULSE: return new PulseGeneratorComponent(area, x, y, testHandler, 
 					connectorRelay, componentRelay, costDrawer, turnHandler, 
 					isTestComponent);
 			case POWER: return new PowerSourceComponent(area, x, y, testHandler, 
 					connectorRelay, componentRelay, costDrawer, isTestComponent);
+			case DELAY: return new DelayComponent(area, x, y, testHandler, 
+					connectorRelay, componentRelay, costDrawer, turnHandler, 
+					isTestComponent);
 			default: System.err.println("Couldn't create the component. "
 					+ "Please update ComponentType.getNewComponent method"); 
 				break;
@@ -83,19 +148,75 @@ public enum ComponentType
 			case OR: return "Logical OR";
 			case PULSE: return "Pulse Generator";
 			case POWER: return "Power Source";
+			case AND: return "Logical AND";
+			case NAND: return "Logical NAND";
+			case NOR: return "Logical NOR";
+			case EXOR: return "Logical EXOR";
+			case EXNOR: return "Logical EXNOR";
+			case INVERTER: return "Inverter";
+			case LATCH: return "Latch";
+			case FLIPFLOP: return "FlipFlop";
+			case BISTABLE: return "Bistable";
+			case RELAY: return "Relay";
+			case COUNTER: return "Counter";
+			case HCCOUNTER: return "Hardcore Counter";
+			case DELAY: return "Delay";
+			case BINARY: return "Binary Converter";
 			default: return "Failed to recognize";
 		}
 	}
 	
 	/**
-	 * @return How much does a component of this type cost?
+	 * @return How the signalCircuit processes the signals of this type
+	 */
+	public GateType getGateType()
+	{
+		switch (this)
+		{
+			case OR: return GateType.OR;
+			case AND: return GateType.AND;
+			case NAND: return GateType.NAND;
+			case NOR: return GateType.NOR;
+			case EXOR: return GateType.EXOR;
+			case EXNOR: return GateType.EXNOR;
+			case INVERTER: return GateType.INVERTER;
+			case LATCH: return GateType.LATCH;
+			case FLIPFLOP: return GateType.FLIPFLOP;
+			case BISTABLE: return GateType.BISTABLE;
+			case RELAY: return GateType.RELAY;
+			case COUNTER: return GateType.COUNTER;
+			case HCCOUNTER: return GateType.HCCOUNTER;
+			case BINARY: return GateType.BINARY;
+			default: return GateType.EXTERNAL;
+		}
+	}
+	
+	/**
+	 * @return How much does a component of this type cost? The new logic 
+	 * gates cost as much as the OR component and the components that keep a 
+	 * state or time their signals cost as much as the pulse generator until 
+	 * the prices are balanced.
 	 */
 	public double getPrice()
 	{
 		switch (this)
 		{
-			case OR: return 0.3;
-			case PULSE: return 0.8;
+			case OR:
+			case AND:
+			case NAND:
+			case NOR:
+			case EXOR:
+			case EXNOR:
+			case INVERTER:
+			case RELAY:
+			case BINARY: return 0.3;
+			case PULSE:
+			case LATCH:
+			case FLIPFLOP:
+			case BISTABLE:
+			case COUNTER:
+			case HCCOUNTER:
+			case DELAY: return 0.8;
 			case POWER: return 0.2;
 		}
 		
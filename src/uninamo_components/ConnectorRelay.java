@@ -4,10 +4,17 @@ import genesis_logic.Handled;
 import genesis_logic.Handler;
 
 import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.HashMap;
 
 /**
  * ConnectorRelay keeps track of all the connectors used in the game and 
- * can tell if there's a connector at a given position.
+ * can tell if there's a connector at a given position. The connectors are 
+ * placed in a uniform grid based on their positions, so only the connectors 
+ * near the position need to be checked. Connectors can also be found with 
+ * their IDs through a hash index. The relay also holds the signalCircuit 
+ * that processes the signals of its connectors and a grid of the cables 
+ * connecting them.
  * 
  * @author Mikko Hilpinen
  * @since 9.3.2014
@@ -16,9 +23,19 @@ public class ConnectorRelay extends Handler
 {
 	// ATTRIBUTES	-----------------------------------------------------
 	
-	private CableConnector lastFoundConnector;
-	private Class<?> lastConnectorFilter;
-	private Point2D.Double lastCheckPosition;
+	private SignalCircuit circuit;
+	private CableSegmentGrid cableGrid;
+	private HashMap<Long, ArrayList<CableConnector>> grid;
+	private HashMap<CableConnector, Long> connectorCells;
+	
+	// The IDs are only known once the hosts have been fully created, so the 
+	// hosts update their connectors' IDs when they change
+	private HashMap<String, CableConnector> idIndex;
+	private HashMap<CableConnector, String> indexedIDs;
+	
+	// The cells must be larger than the connectors so that only the 
+	// neighbouring cells need to be checked
+	private static final int CELLSIZE = 64;
 	
 	
 	// CONSTRUCTOR	-----------------------------------------------------
@@ -31,8 +48,12 @@ public class ConnectorRelay extends Handler
 		super(false, null);
 		
 		// Initializes attributes
-		this.lastConnectorFilter = CableConnector.class;
-		this.lastFoundConnector = null;
+		this.circuit = new SignalCircuit();
+		this.cableGrid = new CableSegmentGrid();
+		this.grid = new HashMap<Long, ArrayList<CableConnector>>();
+		this.connectorCells = new HashMap<CableConnector, Long>();
+		this.idIndex = new HashMap<String, CableConnector>();
+		this.indexedIDs = new HashMap<CableConnector, String>();
 	}
 	
 	
@@ -47,23 +68,30 @@ public class ConnectorRelay extends Handler
 	@Override
 	protected boolean handleObject(Handled h)
 	{
-		// Checks if the connector collides with the checkposition and if so, 
-		// remembers it and quits
-		if (!this.lastConnectorFilter.isInstance(h))
-			return true;
-		
-		CableConnector c = (CableConnector) h;
-		
-		if (c.pointCollides(this.lastCheckPosition))
-		{
-			this.lastFoundConnector = c;
-			return false;
-		}
-		
+		// The connectors are searched through the grid and the index instead
 		return true;
 	}
 	
 	
+	// GETTERS & SETTERS	----------------------------------------------
+	
+	/**
+	 * @return The signalCircuit shared by the connectors in this relay
+	 */
+	public SignalCircuit getCircuit()
+	{
+		return this.circuit;
+	}
+	
+	/**
+	 * @return The grid that keeps track of the cables' positions
+	 */
+	public CableSegmentGrid getCableGrid()
+	{
+		return this.cableGrid;
+	}
+	
+	
 	// OTHER METHODS	--------------------------------------------------
 	
 	/**
@@ -73,6 +101,71 @@ public class ConnectorRelay extends Handler
 	public void addConnector(CableConnector c)
 	{
 		addHandled(c);
+		updateConnectorPosition(c);
+		updateConnectorID(c);
+	}
+	
+	/**
+	 * Removes a connector from the relay's grid and index. This should be 
+	 * called when the connector dies.
+	 * 
+	 * @param c The connector that is removed
+	 */
+	public void removeConnector(CableConnector c)
+	{
+		Long cell = this.connectorCells.remove(c);
+		if (cell != null)
+			removeFromCell(cell, c);
+		
+		String id = this.indexedIDs.remove(c);
+		if (id != null && this.idIndex.get(id) == c)
+			this.idIndex.remove(id);
+	}
+	
+	/**
+	 * Updates the connector's ID in the relay's index. This should be called 
+	 * each time the connector's ID changes.
+	 * 
+	 * @param c The connector whose ID changed
+	 */
+	public void updateConnectorID(CableConnector c)
+	{
+		if (c.isDead())
+			return;
+		
+		// Removes the old ID first
+		String oldID = this.indexedIDs.get(c);
+		if (oldID != null && this.idIndex.get(oldID) == c)
+			this.idIndex.remove(oldID);
+		
+		String newID = c.getID();
+		this.idIndex.put(newID, c);
+		this.indexedIDs.put(c, newID);
+	}
+	
+	/**
+	 * Moves the connector to the correct cell in the grid. This should be 
+	 * called each time the connector moves.
+	 * 
+	 * @param c The connector that moved
+	 */
+	void updateConnectorPosition(CableConnector c)
+	{
+		Long newCell = getCellKey(getCell(c.getX()), getCell(c.getY()));
+		Long oldCell = this.connectorCells.put(c, newCell);
+		
+		if (newCell.equals(oldCell))
+			return;
+		if (oldCell != null)
+			removeFromCell(oldCell, c);
+		
+		ArrayList<CableConnector> connectors = this.grid.get(newCell);
+		if (connectors == null)
+		{
+			connectors = new ArrayList<CableConnector>();
+			this.grid.put(newCell, connectors);
+		}
+		connectors.add(c);
 	}
 	
 	/**
@@ -89,19 +182,34 @@ public class ConnectorRelay extends Handler
 	public CableConnector getConnectorAtPoint(Point2D.Double testPoint, 
 			Class<?> connectorClassLimit)
 	{
-		// Sets up the attributes
-		this.lastFoundConnector = null;
-		this.lastCheckPosition = testPoint;
+		int cellX = getCell(testPoint.getX());
+		int cellY = getCell(testPoint.getY());
 		
-		if (connectorClassLimit == null)
-			this.lastConnectorFilter = getSupportedClass();
-		else
-			this.lastConnectorFilter = connectorClassLimit;
-		
-		// Tries to find the connector
-		handleObjects();
+		// Only the connectors in the neighbouring cells can collide with 
+		// the point
+		for (int x = cellX - 1; x <= cellX + 1; x++)
+		{
+			for (int y = cellY - 1; y <= cellY + 1; y++)
+			{
+				ArrayList<CableConnector> connectors = 
+						this.grid.get(getCellKey(x, y));
+				if (connectors == null)
+					continue;
+				
+				for (int i = 0; i < connectors.size(); i++)
+				{
+					CableConnector c = connectors.get(i);
+					
+					if (c.isDead() || (connectorClassLimit != null && 
+							!connectorClassLimit.isInstance(c)))
+						continue;
+					if (c.pointCollides(testPoint))
+						return c;
+				}
+			}
+		}
 		
-		return this.lastFoundConnector;
+		return null;
 	}
 	
 	/**
@@ -113,61 +221,33 @@ public class ConnectorRelay extends Handler
 	 */
 	public CableConnector getConnectorWithID(String ID)
 	{
-		//System.out.println(this);
+		CableConnector c = this.idIndex.get(ID);
 		
-		// Creates a handling operator and starts the search
-		IDFindOperator operator = new IDFindOperator(ID);
-		handleObjects(operator);
+		if (c == null || c.isDead())
+			return null;
 		
-		// Returns the connector that was found (or null)
-		return operator.getConnector();
+		return c;
 	}
 	
 	
-	// SUBCLASSES	-----------------------------------------------------
-	
-	private class IDFindOperator extends HandlingOperator
+	private void removeFromCell(Long cell, CableConnector c)
 	{
-		// ATTRIBUTES	-------------------------------------------------
-		
-		private String idToBeFound;
-		private CableConnector foundConnector;
-		
-		
-		// CONSTRUCTOR	-------------------------------------------------
-		
-		public IDFindOperator(String idToBeFound)
-		{
-			// Initializes attributes
-			this.idToBeFound = idToBeFound;
-			this.foundConnector = null;
-		}
-		
-		
-		// IMPLEMENTED METHODS	-----------------------------------------
-		
-		@Override
-		protected boolean handleObject(Handled h)
-		{
-			CableConnector c = (CableConnector) h;
-			
-			//System.out.println("Searching... CurrentID: " + c.getID());
-			
-			if (c.getID().equals(this.idToBeFound))
-			{
-				this.foundConnector = c;
-				return false;
-			}
-			
-			return true;
-		}
-		
+		ArrayList<CableConnector> connectors = this.grid.get(cell);
+		if (connectors == null)
+			return;
 		
-		// OTHER METHODS	---------------------------------------------
-		
-		public CableConnector getConnector()
-		{
-			return this.foundConnector;
-		}
+		connectors.remove(c);
+		if (connectors.isEmpty())
+			this.grid.remove(cell);
+	}
+	
+	private static int getCell(double coordinate)
+	{
+		return (int) Math.floor(coordinate / CELLSIZE);
+	}
+	
+	private static Long getCellKey(int cellX, int cellY)
+	{
+		return ((long) cellX << 32) | (cellY & 0xffffffffL);
 	}
 }
@@ -0,0 +1,133 @@
+package uninamo_components;
+
+import omega_world.Area;
+import uninamo_gameplaysupport.TestHandler;
+import uninamo_gameplaysupport.TurnBased;
+import uninamo_gameplaysupport.TurnHandler;
+import uninamo_userinterface.CurrentCostDrawer;
+
+/**
+ * DelayComponent sends true signal for a while after its input receives a true
+ * pulse. The duration is counted in turns, so unlike the other logic
+ * components, the delay sets its output itself.
+ *
+ * @author Mikko Hilpinen
+ * @since 31.3.2014
+ */
+public class DelayComponent extends NormalComponent implements TurnBased
+{
+	// ATTRIBUTES	------------------------------------------------------
+	
+	private int duration, turnsLeft;
+	
+	private static final int DEFAULTDURATION = 3;
+	
+	
+	// CONSTRUCTOR	------------------------------------------------------
+	
+	/**
+	 * Creates a new delay component to the given position
+	 *
+	 * @param area The area where the object will reside at
+	 * @param x The component's x-coordinate (pixels)
+	 * @param y The component's y-coordinate (pixels)
+	 * @param testHandler The testHandler that informs the object about
+	 * test events
+	 * @param connectorRelay The connectorRelay that keeps track of all the
+	 * connectors
+	 * @param componentRelay The componentRelay that will keep track of the
+	 * component
+	 * @param costDrawer The costDrawer that will be affected by the component
+	 * (optional)
+	 * @param turnHandler The turnHandler that informs the object about
+	 * turn events
+	 * @param isForTesting If this is true, the component will go to test mode
+	 * where it won't react to mouse but will create test cables to its connectors
+	 */
+	public DelayComponent(Area area, int x, int y, TestHandler testHandler,
+			ConnectorRelay connectorRelay, NormalComponentRelay componentRelay,
+			CurrentCostDrawer costDrawer, TurnHandler turnHandler,
+			boolean isForTesting)
+	{
+		super(area, x, y, testHandler, connectorRelay, componentRelay,
+				costDrawer, ComponentType.DELAY, "test", 1, 1, true, 
+				isForTesting);
+		
+		// Initializes attributes
+		this.duration = DEFAULTDURATION;
+		this.turnsLeft = 0;
+		
+		// Adds the object to the handler(s)
+		if (turnHandler != null)
+			turnHandler.addTurnListener(this);
+	}
+	
+	
+	// IMPLEMENTED METHODS	----------------------------------------------
+	
+	@Override
+	public void onSignalChange(boolean newSignalStatus, SignalSender source)
+	{
+		// A true pulse starts (or restarts) the delay
+		if (newSignalStatus && source instanceof InputCableConnector)
+		{
+			this.turnsLeft = this.duration;
+			sendSignalToOutput(0, true);
+		}
+	}
+	
+	@Override
+	public boolean getSignalStatus()
+	{
+		return getOutputStatus(0);
+	}
+	
+	@Override
+	public void onTurnEvent()
+	{
+		if (this.turnsLeft <= 0)
+			return;
+		
+		// Stops sending the signal once the delay is over
+		this.turnsLeft --;
+		if (this.turnsLeft == 0)
+			sendSignalToOutput(0, false);
+	}
+	
+	@Override
+	public void onTestStart()
+	{
+		super.onTestStart();
+		
+		// Resets the signal on test start
+		this.turnsLeft = 0;
+		sendSignalToOutput(0, false);
+	}
+	
+	
+	// GETTERS & SETTERS	---------------------------------------------
+	
+	/**
+	 * @return How many turns the component sends true signal after a pulse
+	 */
+	public int getDuration()
+	{
+		return this.duration;
+	}
+	
+	/**
+	 * Changes how long the component sends true signal after a pulse
+	 *
+	 * @param duration How many turns the signal lasts (at least 1)
+	 */
+	public void setDuration(int duration)
+	{
+		if (duration < 1)
+		{
+			System.err.println("The delay must last at least 1 turn");
+			return;
+		}
+		
+		this.duration = duration;
+	}
+}
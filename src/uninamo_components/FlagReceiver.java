@@ -0,0 +1,20 @@
+package uninamo_components;
+
+/**
+ * FlagReceivers are signalReceivers that also want to know when their 
+ * connector is flagged or unflagged as a part of a problematic part of a 
+ * signalCircuit (a signal loop or a damped input, for example).
+ * 
+ * @author Mikko Hilpinen
+ * @since 5.4.2014
+ * @see SignalCircuit
+ */
+public interface FlagReceiver extends SignalReceiver
+{
+	/**
+	 * This method is called when the receiver's connector is flagged or 
+	 * unflagged. It is always called from the game thread.
+	 * @param flagged Is the connector now flagged
+	 */
+	public void onFlagChange(boolean flagged);
+}
@@ -0,0 +1,373 @@
+package uninamo_components;
+
+/**
+ * GateTypes tell how a signalCircuit should calculate the signals of a
+ * component's outputs from the signals of its inputs. Each type is compiled
+ * into a transition table where the inputs are packed into an index, so the
+ * circuit only needs a single table lookup per evaluation. Sequential types
+ * also have a state that is stored in the same table. Combinational types
+ * can also be evaluated as bit vectors where each bit is a separate
+ * simulation.
+ *
+ * @author Mikko Hilpinen
+ * @since 25.3.2014
+ * @see SignalCircuit
+ */
+public enum GateType
+{
+	/**
+	 * External gates don't react to their inputs. The signals of their
+	 * outputs are set from outside of the circuit (power sources, pulse
+	 * generators and machine components, for example)
+	 */
+	EXTERNAL,
+	/**
+	 * Or gate sends TRUE when any of its inputs receive TRUE
+	 */
+	OR,
+	/**
+	 * And gate sends TRUE when all of its inputs receive TRUE
+	 */
+	AND,
+	/**
+	 * Nand gate sends TRUE when any of its inputs receive FALSE
+	 */
+	NAND,
+	/**
+	 * Nor gate sends TRUE when all of its inputs receive FALSE
+	 */
+	NOR,
+	/**
+	 * Exor gate sends TRUE when an odd number of its inputs receive TRUE
+	 */
+	EXOR,
+	/**
+	 * Exnor gate sends TRUE when an even number of its inputs receive TRUE
+	 */
+	EXNOR,
+	/**
+	 * Inverter sends TRUE when its input receives FALSE and vice versa
+	 */
+	INVERTER,
+	/**
+	 * Relay sends the signal of its first input through the first output if
+	 * the second input receives FALSE and through the second output if the
+	 * second input receives TRUE
+	 */
+	RELAY,
+	/**
+	 * Binary converter reads a binary number from its inputs (0, 1, 2, 4, 8)
+	 * and sends TRUE from the output matching the number
+	 */
+	BINARY,
+	/**
+	 * Latch sends TRUE after its first input receives a TRUE pulse until its
+	 * reset input receives a TRUE pulse
+	 */
+	LATCH,
+	/**
+	 * FlipFlop switches the signals of its two outputs each time its first
+	 * input receives a TRUE pulse. The first output sends TRUE at first.
+	 */
+	FLIPFLOP,
+	/**
+	 * Bistable's first output sends TRUE and second FALSE until the first
+	 * input receives a TRUE pulse, after which the outputs are switched until
+	 * the reset input receives a TRUE pulse
+	 */
+	BISTABLE,
+	/**
+	 * Counter counts the TRUE pulses it receives and sends TRUE from the
+	 * output matching the count
+	 */
+	COUNTER,
+	/**
+	 * Hardcore counter counts the TRUE pulses it receives and sends the count
+	 * as a binary number (0, 1, 2, 4, 8)
+	 */
+	HCCOUNTER;
+
+
+	// ATTRIBUTES	-----------------------------------------------------
+
+	// The tables are indexed with [inputAmount][outputAmount]
+	private int[][][] tables;
+
+	/**
+	 * Each table entry contains the output signals in its lowest bits and
+	 * the next state after those
+	 */
+	static final int STATESHIFT = 16;
+	private static final int MAXINPUTS = 12;
+
+
+	// METHODS	---------------------------------------------------------
+
+	/**
+	 * @return How many inputs a component of this type has by default
+	 */
+	public int getInputAmount()
+	{
+		switch (this)
+		{
+			case EXTERNAL: return 0;
+			case INVERTER: return 1;
+			case BINARY: return 5;
+			default: return 2;
+		}
+	}
+
+	/**
+	 * @return How many outputs a component of this type has by default
+	 */
+	public int getOutputAmount()
+	{
+		switch (this)
+		{
+			case EXTERNAL: return 0;
+			case RELAY:
+			case FLIPFLOP:
+			case BISTABLE: return 2;
+			case BINARY:
+			case COUNTER: return 10;
+			case HCCOUNTER: return 5;
+			default: return 1;
+		}
+	}
+
+	/**
+	 * @return Does the gate have a state that affects its outputs
+	 */
+	public boolean isSequential()
+	{
+		switch (this)
+		{
+			case LATCH:
+			case FLIPFLOP:
+			case BISTABLE:
+			case COUNTER:
+			case HCCOUNTER: return true;
+			default: return false;
+		}
+	}
+
+	/**
+	 * Returns the transition table of a gate of this type. The table is
+	 * indexed with (state << inputAmount) | inputs, where each input is a
+	 * bit. Each entry contains the outputs as bits and the next state
+	 * shifted by STATESHIFT. The initial state is always 0.
+	 *
+	 * @param inputAmount How many inputs the gate has
+	 * @param outputAmount How many outputs the gate has
+	 * @return The transition table of the gate or null if a table can't be
+	 * made for the gate
+	 */
+	int[] getTable(int inputAmount, int outputAmount)
+	{
+		if (inputAmount > MAXINPUTS || outputAmount > STATESHIFT)
+		{
+			System.err.println("Can't create a gate with " + inputAmount +
+					" inputs and " + outputAmount + " outputs");
+			return null;
+		}
+
+		// The tables are created when they are first needed
+		if (this.tables == null)
+			this.tables = new int[MAXINPUTS + 1][STATESHIFT + 1][];
+		if (this.tables[inputAmount][outputAmount] != null)
+			return this.tables[inputAmount][outputAmount];
+
+		int states = getStateAmount(outputAmount);
+		int[] table = new int[states << inputAmount];
+
+		for (int state = 0; state < states; state++)
+		{
+			for (int inputs = 0; inputs < 1 << inputAmount; inputs++)
+			{
+				table[(state << inputAmount) | inputs] = transition(state,
+						inputs, inputAmount, outputAmount);
+			}
+		}
+
+		this.tables[inputAmount][outputAmount] = table;
+		return table;
+	}
+
+	/**
+	 * Calculates the output signals of a combinational gate of this type.
+	 * Each bit in the vectors is a separate signal. Sequential and external
+	 * gates send FALSE.
+	 *
+	 * @param inputs The signal vectors of the gate's inputs
+	 * @param inputAmount How many inputs the gate has
+	 * @param outputs The table where the outputs' signal vectors are written
+	 * @param outputAmount How many outputs the gate has
+	 */
+	public void evaluate(long[] inputs, int inputAmount, long[] outputs,
+			int outputAmount)
+	{
+		long result = 0;
+
+		switch (this)
+		{
+			case OR:
+			case NOR:
+			case INVERTER:
+				for (int i = 0; i < inputAmount; i++)
+				{
+					result |= inputs[i];
+				}
+				if (this != OR)
+					result = ~result;
+				break;
+			case AND:
+			case NAND:
+				result = -1L;
+				for (int i = 0; i < inputAmount; i++)
+				{
+					result &= inputs[i];
+				}
+				if (this == NAND)
+					result = ~result;
+				break;
+			case EXOR:
+			case EXNOR:
+				for (int i = 0; i < inputAmount; i++)
+				{
+					result ^= inputs[i];
+				}
+				if (this == EXNOR)
+					result = ~result;
+				break;
+			case RELAY:
+				long signal = inputAmount > 0 ? inputs[0] : 0;
+				long select = inputAmount > 1 ? inputs[1] : 0;
+				if (outputAmount > 0)
+					outputs[0] = signal & ~select;
+				if (outputAmount > 1)
+					outputs[1] = signal & select;
+				for (int i = 2; i < outputAmount; i++)
+				{
+					outputs[i] = 0;
+				}
+				return;
+			case BINARY:
+				// An output is TRUE when each input bit matches its number.
+				// The first input stands for 0 and isn't part of the number
+				for (int output = 0; output < outputAmount; output++)
+				{
+					long match = -1L;
+					for (int i = 1; i < inputAmount; i++)
+					{
+						if (((output >> (i - 1)) & 1) != 0)
+							match &= inputs[i];
+						else
+							match &= ~inputs[i];
+					}
+					if (output >> Math.max(inputAmount - 1, 0) != 0)
+						match = 0;
+					outputs[output] = match;
+				}
+				return;
+			default:
+				break;
+		}
+
+		// The rest of the gates send the same signal from all outputs
+		for (int i = 0; i < outputAmount; i++)
+		{
+			outputs[i] = result;
+		}
+	}
+
+	private int getStateAmount(int outputAmount)
+	{
+		// Sequential gates remember their previous inputs in the two lowest
+		// bits of the state
+		switch (this)
+		{
+			case LATCH:
+			case FLIPFLOP:
+			case BISTABLE: return 2 << 2;
+			case COUNTER: return Math.max(outputAmount, 1) << 2;
+			case HCCOUNTER: return (1 << Math.max(outputAmount - 1, 0)) << 2;
+			default: return 1;
+		}
+	}
+
+	private int transition(int state, int inputs, int inputAmount,
+			int outputAmount)
+	{
+		int allOutputs = (1 << outputAmount) - 1;
+
+		// Combinational gates are calculated with the vector evaluation
+		if (!isSequential())
+		{
+			if (this == EXTERNAL)
+				return 0;
+
+			long[] inputVectors = new long[inputAmount];
+			long[] outputVectors = new long[outputAmount];
+			for (int i = 0; i < inputAmount; i++)
+			{
+				inputVectors[i] = ((inputs >> i) & 1) != 0 ? -1L : 0;
+			}
+			evaluate(inputVectors, inputAmount, outputVectors, outputAmount);
+
+			int outputs = 0;
+			for (int i = 0; i < outputAmount; i++)
+			{
+				if (outputVectors[i] != 0)
+					outputs |= 1 << i;
+			}
+			return outputs;
+		}
+
+		// Sequential gates react to the TRUE pulses (rising edges) of their
+		// first (trigger) and second (reset) input
+		int value = state >> 2;
+		int rising = inputs & ~state & 3;
+		boolean trigger = (rising & 1) != 0;
+		boolean reset = (rising & 2) != 0;
+		int outputs;
+
+		switch (this)
+		{
+			case LATCH:
+				if (trigger)
+					value = 1;
+				if (reset)
+					value = 0;
+				outputs = value != 0 ? allOutputs : 0;
+				break;
+			case FLIPFLOP:
+			case BISTABLE:
+				if (trigger)
+					value = this == FLIPFLOP ? 1 - value : 1;
+				if (reset)
+					value = 0;
+				outputs = 1 << value;
+				break;
+			case COUNTER:
+				if (trigger)
+					value = (value + 1) % Math.max(outputAmount, 1);
+				if (reset)
+					value = 0;
+				outputs = 1 << value;
+				break;
+			default:
+				// Hardcore counter's first output tells whether the count is
+				// 0, the rest are the bits of the count
+				int counts = 1 << Math.max(outputAmount - 1, 0);
+				if (trigger)
+					value = (value + 1) % counts;
+				if (reset)
+					value = 0;
+				outputs = (value << 1) | (value == 0 ? 1 : 0);
+				break;
+		}
+
+		int nextState = (value << 2) | (inputs & 3);
+		return (nextState << STATESHIFT) | (outputs & allOutputs);
+	}
+}
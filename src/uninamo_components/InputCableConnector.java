@@ -17,7 +17,6 @@ public class InputCableConnector extends CableConnector
 	// ATTRIBUTES	------------------------------------------------------
 	
 	private Area area;
-	private boolean lastSignalStatus;
 	private ConnectorRelay relay;
 	private TestHandler testHandler;
 	private String hostConnectInfo;
@@ -54,12 +53,11 @@ public class InputCableConnector extends CableConnector
 		this.area = area;
 		this.relay = relay;
 		this.testHandler = testHandler;
-		this.lastSignalStatus = false;
 		this.hostConnectInfo = "I" + inputIndex;
 		
 		// If is on test mode, creates a test cable
 		if (isForTesting)
-			connectCable(new Cable(area, testHandler, relay, null, this, true));
+			new Cable(area, testHandler, relay, null, this, true);
 	}
 	
 	
@@ -81,48 +79,23 @@ public class InputCableConnector extends CableConnector
 	@Override
 	public boolean getSignalStatus()
 	{
-		// Returns the last known status of the signal
-		return this.lastSignalStatus;
+		// The signal is stored in the circuit
+		return getCircuit().getConnectorSignal(getCircuitIndex());
 	}
 
 	@Override
 	public void onSignalChange(boolean newSignalStatus, SignalSender source)
 	{
-		//System.out.println("Input receives new signal");
+		// The signal is calculated in the circuit, which only informs the 
+		// connector about actual changes. Informs the component and updates 
+		// the look
+		getHost().onSignalChange(newSignalStatus, this);
 		
-		// Checks if the signal changed and informs the component if that 
-		// is the case
-		boolean newStatus = calculateNewSignalStatus();
-		
-		if (newStatus != getSignalStatus())
-		{
-			this.lastSignalStatus = newStatus;
-			// Informs the component as well
-			getHost().onSignalChange(getSignalStatus(), this);
-			
-			if (this.lastSignalStatus)
-				getSpriteDrawer().setImageIndex(1);
-			else
-				getSpriteDrawer().setImageIndex(0);
-		}	
-	}
-	
-	@Override
-	public void connectCable(Cable c)
-	{
-		super.connectCable(c);
-		
-		// In addition to normal connecting, recalculates the signal status
-		onSignalChange(c.getSignalStatus(), c);
-	}
-	
-	@Override
-	public void removeCable(Cable c)
-	{
-		super.removeCable(c);
-		
-		// In addition to removal, recalculates the signal status
-		onSignalChange(false, c);
+		if (newSignalStatus)
+			getSpriteDrawer().setImageIndex(1);
+		else
+			getSpriteDrawer().setImageIndex(0);
+		invalidateStaticLook();
 	}
 	
 	@Override
@@ -130,25 +103,4 @@ public class InputCableConnector extends CableConnector
 	{
 		return getHost().getID() + this.hostConnectInfo;
 	}
-	
-	
-	// OTHER METHODS	-------------------------------------------------
-	
-	private boolean calculateNewSignalStatus()
-	{
-		// Checks all the cables connected to the connector. The signal is 
-		// true if any of those cables' signal is true
-		boolean signal = false;
-		
-		for (int i = 0; i < getCableAmount(); i++)
-		{
-			if (getCable(i).getSignalStatus())
-			{
-				signal = true;
-				break;
-			}
-		}
-		
-		return signal;
-	}
 }
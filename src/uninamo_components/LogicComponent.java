@@ -0,0 +1,74 @@
+package uninamo_components;
+
+import omega_world.Area;
+import uninamo_gameplaysupport.TestHandler;
+import uninamo_userinterface.CurrentCostDrawer;
+
+/**
+ * LogicComponents are components whose outputs are calculated by the
+ * signalCircuit from the inputs. A single class handles all the logic 
+ * component types (OR, AND, counters, etc.), the amount of inputs and outputs 
+ * and the logic itself come from the gateType of the componentType. 
+ * Components that have a state (counters, latches, etc.) return to their 
+ * initial state when a test starts.
+ *
+ * @author Mikko Hilpinen
+ * @since 31.3.2014
+ * @see GateType
+ */
+public class LogicComponent extends NormalComponent
+{
+	// CONSTRUCTOR	-----------------------------------------------------
+	
+	/**
+	 * Creates a new LogicComponent to the given position.
+	 *
+	 * @param area The area where the object will reside at
+	 * @param x The x-coordinate of the component (pixels)
+	 * @param y The y-coordinate of the component (pixels)
+	 * @param testHandler The testHandler that will inform the object about test events
+	 * @param connectorRelay A connectorRelay that will keep track of the
+	 * connectors
+	 * @param componentRelay The componentRelay that will keep track of the
+	 * component (optional)
+	 * @param costDrawer The currentCostDrawer that will be affected by the
+	 * component (optional)
+	 * @param type The componentType of the component. The type must have a 
+	 * gateType other than EXTERNAL.
+	 * @param isForTesting If this is true, the component will go to test mode
+	 * where it won't react to mouse but will create test cables to its connectors
+	 */
+	public LogicComponent(Area area, int x, int y, TestHandler testHandler,
+			ConnectorRelay connectorRelay, NormalComponentRelay componentRelay,
+			CurrentCostDrawer costDrawer, ComponentType type,
+			boolean isForTesting)
+	{
+		super(area, x, y, testHandler, connectorRelay, componentRelay,
+				costDrawer, type, "test", type.getGateType().getInputAmount(),
+				type.getGateType().getOutputAmount(), true, isForTesting);
+	}
+	
+	
+	// IMPLEMENTED METHODS	----------------------------------------------
+	
+	@Override
+	public void onSignalChange(boolean newSignalStatus, SignalSender source)
+	{
+		// The circuit calculates and stores the output signals
+	}
+	
+	@Override
+	public boolean getSignalStatus()
+	{
+		return getOutputStatus(0);
+	}
+	
+	@Override
+	public void onTestStart()
+	{
+		super.onTestStart();
+		
+		// Each test starts from the initial state
+		resetGate();
+	}
+}
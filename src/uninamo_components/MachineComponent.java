@@ -5,6 +5,7 @@ import java.awt.Graphics2D;
 
 import omega_world.Area;
 import uninamo_gameplaysupport.TestHandler;
+import uninamo_gameplaysupport.TextCache;
 import uninamo_main.GameSettings;
 
 /**
@@ -47,10 +48,11 @@ public abstract class MachineComponent extends Component
 			String componentName)
 	{
 		super(area, x, y, testHandler,connectorRelay, spritename, inputs, 
-				outputs, false, isForTesting);
+				outputs, GateType.EXTERNAL, false, isForTesting);
 		
 		// Initializes attributes
 		this.name = componentName;
+		updateConnectorIDs();
 	}
 	
 	
@@ -67,7 +69,7 @@ public abstract class MachineComponent extends Component
 		// Also draws the name of the component
 		g2d.setColor(Color.BLACK);
 		g2d.setFont(GameSettings.basicFont);
-		g2d.drawString(this.name, 0, 0);
+		TextCache.drawString(g2d, this.name, 0, 0);
 	}
 	
 	@Override
@@ -75,4 +77,13 @@ public abstract class MachineComponent extends Component
 	{
 		return this.name;
 	}
+	
+	@Override
+	protected int getDrawMargin()
+	{
+		// The name is drawn outside the sprite
+		if (this.name == null)
+			return super.getDrawMargin();
+		return GameSettings.basicFont.getSize() * this.name.length();
+	}
 }
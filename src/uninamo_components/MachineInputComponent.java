@@ -1,7 +1,5 @@
 package uninamo_components;
 
-import java.util.HashMap;
-
 import omega_world.Area;
 import uninamo_gameplaysupport.TestHandler;
 import uninamo_machinery.Machine;
@@ -18,7 +16,7 @@ public class MachineInputComponent extends MachineComponent
 	// ATTRIBUTES	-----------------------------------------------------
 	
 	private Machine host;
-	private HashMap<Integer, Boolean> signaldata;
+	private int inputAmount;
 	
 	
 	// CONSTRUCTOR	-----------------------------------------------------
@@ -51,12 +49,7 @@ public class MachineInputComponent extends MachineComponent
 		
 		// Initializes attributes
 		this.host = host;
-		this.signaldata = new HashMap<Integer, Boolean>();
-		
-		for (int i = 0; i < inputs; i++)
-		{
-			this.signaldata.put(i, false);
-		}
+		this.inputAmount = inputs;
 	}
 	
 	
@@ -74,20 +67,16 @@ public class MachineInputComponent extends MachineComponent
 		if (index < 0)
 			return;
 		
-		// Checks if the signal changed
-		if (newSignalStatus != this.signaldata.get(index))
-		{
-			this.signaldata.put(index, newSignalStatus);
-			this.host.onSignalEvent(newSignalStatus, index);
-		}
+		// The circuit only informs about signals that changed
+		this.host.onSignalEvent(newSignalStatus, index);
 	}
 
 	@Override
 	public boolean getSignalStatus()
 	{
-		if (this.signaldata == null || this.signaldata.size() == 0)
+		if (this.inputAmount == 0)
 			return false;
 		
-		return this.signaldata.get(0);
+		return getInputStatus(0);
 	}
 }
@@ -6,6 +6,7 @@ import java.awt.geom.Point2D;
 
 import omega_gameplay.HelpMath;
 import omega_world.Area;
+import uninamo_gameplaysupport.MouseDispatcher;
 import uninamo_gameplaysupport.TestHandler;
 import uninamo_gameplaysupport.TestListener;
 import uninamo_main.GameSettings;
@@ -26,6 +27,7 @@ public abstract class NormalComponent extends Component implements
 	// ATTRIBUTES	-----------------------------------------------------
 	
 	private String id;
+	private ComponentType type;
 	private CurrentCostDrawer costDrawer;
 	private boolean dragged, diesWhenDropped, active, testing, testVersion;
 	// Notice that this is relative to the origin, not top-left corner 
@@ -52,6 +54,7 @@ public abstract class NormalComponent extends Component implements
 	 * the component (optional)
 	 * @param costDrawer The costDrawer that will be affected by the component 
 	 * (optional)
+	 * @param type What componentType the component represents
 	 * @param spritename The name of the component sprite used to draw the 
 	 * component
 	 * @param inputs How many input connectors the component has
@@ -63,18 +66,20 @@ public abstract class NormalComponent extends Component implements
 	public NormalComponent(Area area, int x, int y, TestHandler testHandler, 
 			ConnectorRelay connectorRelay, 
 			NormalComponentRelay componentRelay, CurrentCostDrawer costDrawer, 
-			String spritename, int inputs, int outputs, boolean fromBox, 
-			boolean isForTesting)
+			ComponentType type, String spritename, int inputs, int outputs, 
+			boolean fromBox, boolean isForTesting)
 	{
 		super(area, x, y, testHandler,
-				connectorRelay, spritename, inputs, outputs, fromBox,
-				isForTesting);
+				connectorRelay, spritename, inputs, outputs, 
+				type.getGateType(), fromBox, isForTesting);
 		
 		// Initializes attributes
+		this.type = type;
 		String typeName = getType().toString();
 		if (typeName.length() > 4)
 			typeName = typeName.substring(0, 4);
 		this.id = typeName + super.getID();
+		updateConnectorIDs();
 		this.costDrawer = costDrawer;
 		
 		this.dragged = fromBox && !isForTesting;
@@ -95,20 +100,15 @@ public abstract class NormalComponent extends Component implements
 		if (componentRelay != null)
 			componentRelay.addComponent(this);
 		if (area.getMouseHandler() != null)
-			area.getMouseHandler().addMouseListener(this);
+			MouseDispatcher.getDispatcher(area).addMouseListener(this);
 		if (testHandler != null)
 			testHandler.addTestable(this);
+		
+		// The component may start as being dragged
+		invalidateStaticLook();
 	}
 	
 	
-	// ABSTRACT METHODS	--------------------------------------------------
-	
-	/**
-	 * @return What componentType this component represents
-	 */
-	public abstract ComponentType getType();
-
-	
 	// IMPLEMENTED METHODS	----------------------------------------------
 	
 	@Override
@@ -148,6 +148,7 @@ public abstract class NormalComponent extends Component implements
 		{
 			this.dragged = true;
 			componentDragged = true;
+			invalidateStaticLook();
 			this.lastRelativeMouseGrabPosition = new Point2D.Double(getX() - 
 					mousePosition.getX(), getY() - mousePosition.getY());
 		}
@@ -157,6 +158,7 @@ public abstract class NormalComponent extends Component implements
 		{
 			this.dragged = false;
 			componentDragged = false;
+			invalidateStaticLook();
 			
 			// If the component was supposed to die upon drop, dies
 			if (this.diesWhenDropped)
@@ -234,6 +236,13 @@ public abstract class NormalComponent extends Component implements
 		return MouseButtonEventScale.LOCAL;
 	}
 	
+	@Override
+	public boolean isStatic()
+	{
+		// The component is drawn separately while it's being dragged
+		return !this.dragged;
+	}
+	
 	@Override
 	public void onTestStart()
 	{
@@ -255,6 +264,17 @@ public abstract class NormalComponent extends Component implements
 		
 		super.kill();
 	}
+	
+	
+	// GETTERS & SETTERS	---------------------------------------------
+	
+	/**
+	 * @return What componentType this component represents
+	 */
+	public ComponentType getType()
+	{
+		return this.type;
+	}
 
 	
 	// OTHER METHODS	--------------------------------------------------
@@ -278,6 +298,9 @@ public abstract class NormalComponent extends Component implements
 	public void setID(String ID)
 	{
 		this.id = ID;
+		
+		// The IDs of the connectors change as well
+		updateConnectorIDs();
 	}
 	
 	/**
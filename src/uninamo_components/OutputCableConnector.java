@@ -17,7 +17,6 @@ public class OutputCableConnector extends CableConnector
 	// ATTRIBUTES	------------------------------------------------------
 	
 	private Area area;
-	private boolean lastSignalStatus;
 	private ConnectorRelay relay;
 	private TestHandler testHandler;
 	private String hostConnectInfo;
@@ -49,7 +48,6 @@ public class OutputCableConnector extends CableConnector
 		super(area, relativex, relativey, relay, host, isForTesting);
 		
 		// Initializes attributes
-		this.lastSignalStatus = false;
 		this.area = area;
 		this.relay = relay;
 		this.testHandler = testHandler;
@@ -61,7 +59,7 @@ public class OutputCableConnector extends CableConnector
 		// If is on test mode, creates a test cable
 		if (isForTesting)
 		{
-			connectCable(new Cable(area, testHandler, relay, this, null, true));
+			new Cable(area, testHandler, relay, this, null, true);
 		}
 	}
 	
@@ -83,46 +81,20 @@ public class OutputCableConnector extends CableConnector
 	@Override
 	public boolean getSignalStatus()
 	{
-		return this.lastSignalStatus;
+		// The signal is stored in the circuit
+		return getCircuit().getConnectorSignal(getCircuitIndex());
 	}
 
 	@Override
 	public void onSignalChange(boolean newSignalStatus, SignalSender source)
 	{
-		// Updates the last signal status and informs the cables if the status 
-		// changed
-		if (newSignalStatus != this.lastSignalStatus)
-		{
-			this.lastSignalStatus = newSignalStatus;
-			
-			for (int i = 0; i < getCableAmount(); i++)
-			{
-				getCable(i).onSignalChange(getSignalStatus(), this);
-			}
-			
-			if (this.lastSignalStatus)
-				getSpriteDrawer().setImageIndex(1);
-			else
-				getSpriteDrawer().setImageIndex(0);
-		}
-	}
-	
-	@Override
-	public void connectCable(Cable c)
-	{
-		super.connectCable(c);
-		
-		// In addition to normal connecting, informs the signal to the cable
-		c.onSignalChange(getSignalStatus(), this);
-	}
-	
-	@Override
-	public void removeCable(Cable c)
-	{
-		super.removeCable(c);
-		
-		// In addition to removal, resets signal status to false
-		c.onSignalChange(false, this);
+		// The signal is propagated to the cables by the circuit, the 
+		// connector only updates its look
+		if (newSignalStatus)
+			getSpriteDrawer().setImageIndex(1);
+		else
+			getSpriteDrawer().setImageIndex(0);
+		invalidateStaticLook();
 	}
 
 	@Override
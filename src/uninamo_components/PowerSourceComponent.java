@@ -38,8 +38,8 @@ public class PowerSourceComponent extends NormalComponent
 			boolean isForTesting)
 	{
 		super(area, x, y, testHandler, 
-				connectorRelay, componentRelay, costDrawer, "test", 0, 1, true, 
-				isForTesting);
+				connectorRelay, componentRelay, costDrawer, ComponentType.POWER, 
+				"test", 0, 1, true, isForTesting);
 		
 		// Informs the output(s) about the component's status
 		sendSignalToOutput(0, true);
@@ -56,10 +56,4 @@ public class PowerSourceComponent extends NormalComponent
 	{
 		return true;
 	}
-
-	@Override
-	public ComponentType getType()
-	{
-		return ComponentType.POWER;
-	}
 }
@@ -45,8 +45,8 @@ public class PulseGeneratorComponent extends NormalComponent implements TurnBase
 			TurnHandler turnHandler, boolean isForTesting)
 	{
 		super(area, x, y, testHandler,
-				connectorRelay, componentRelay, costDrawer, "test", 0, 1, true, 
-				isForTesting);
+				connectorRelay, componentRelay, costDrawer, ComponentType.PULSE, 
+				"test", 0, 1, true, isForTesting);
 		
 		// Initializes attributes
 		this.lastSignalType = false;
@@ -88,10 +88,4 @@ public class PulseGeneratorComponent extends NormalComponent implements TurnBase
 		this.lastSignalType = false;
 		sendSignalToOutput(0, this.lastSignalType);
 	}
-
-	@Override
-	public ComponentType getType()
-	{
-		return ComponentType.PULSE;
-	}
 }
@@ -0,0 +1,1571 @@
+package uninamo_components;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import uninamo_main.GameSettings;
+
+/**
+ * SignalCircuit is a headless model of a logical system. Connectors, cables
+ * and gates (components) are registered to the circuit and are from there on
+ * represented with simple indices. The circuit compiles the wiring into flat
+ * arrays which are then used in signal propagation, so no drawn objects are
+ * needed to evaluate the system. Each input keeps count of the TRUE cables
+ * attached to it, so its signal is known without going through the cables.
+ * Signal changes are queued and handled by a signalScheduler. The visual
+ * connectors and cables only mirror the circuit's state: they are informed
+ * about the changes once the signal has been fully propagated. An input that
+ * changes too many times during a single turn is damped: it stops
+ * informing its gate until the next turn. The circuit is divided into
+ * islands that don't share any connectors. Large amounts of changes are
+ * handled in parallel, one island per task. In clocked mode, the output
+ * signals set during a turn are written to a separate buffer and applied
+ * together when the turn ends, so every object reads the previous turn's
+ * signals regardless of the order in which the objects are informed.
+ *
+ * @author Mikko Hilpinen
+ * @since 25.3.2014
+ */
+public class SignalCircuit
+{
+	// ATTRIBUTES	-----------------------------------------------------
+
+	private IndexPool connectorPool, cablePool, gatePool;
+
+	// Connectors
+	private SignalStore connectorSignals, connectorMirroredSignals;
+	private boolean[] connectorMirrorPending, connectorDamped, 
+			connectorFlagged;
+	private int[] connectorGate, connectorTrueDrivers, connectorToggles;
+	private SignalReceiver[] connectorMirrors;
+
+	// Cables
+	private SignalStore cableSignals, cableMirroredSignals;
+	private boolean[] cableMirrorPending;
+	private int[] cableStart, cableEnd;
+	private SignalReceiver[] cableMirrors;
+
+	// Gates. The pins of a gate are stored in gatePins, inputs first. Each
+	// gate is evaluated with the transition table of its type
+	private GateType[] gateTypes;
+	private int[] gatePinStart, gateInputAmount, gateOutputAmount, gatePins,
+			gateStates;
+	private int[][] gateTables;
+	private int pinAmount;
+
+	// Compiled wiring. The cables leaving output connector c are
+	// fanOutCables[fanOutStart[c]] ... fanOutCables[fanOutStart[c + 1] - 1],
+	// fan-in works the same way for input connectors
+	private int[] fanOutStart, fanOutCables, fanInStart, fanInCables;
+	private int[] connectorIsland;
+	private int islandAmount;
+	private boolean compiled;
+
+	// Propagation. The main worker works on the game thread, the island 
+	// workers are used when the changes are handled in parallel
+	private Worker mainWorker;
+	private Worker[] islandWorkers;
+	private int[] islandWorkerIndices;
+	private int propagationDepth, toggleLimit, parallelThreshold;
+	private boolean flushing;
+
+	// Clocked turns. The outputs set during a turn are stored here until the
+	// turn ends
+	private SignalStore nextOutputSignals, nextOutputWritten;
+	private boolean clocked, turnOpen;
+
+	private static ForkJoinPool pool;
+	private static final int INITIALCAPACITY = 16;
+
+
+	// CONSTRUCTOR	-----------------------------------------------------
+
+	/**
+	 * Creates a new empty signalCircuit
+	 */
+	public SignalCircuit()
+	{
+		// Initializes attributes
+		this.connectorPool = new IndexPool();
+		this.cablePool = new IndexPool();
+		this.gatePool = new IndexPool();
+
+		this.connectorSignals = new SignalStore(INITIALCAPACITY);
+		this.connectorMirroredSignals = new SignalStore(INITIALCAPACITY);
+		this.connectorMirrorPending = new boolean[INITIALCAPACITY];
+		this.connectorGate = new int[INITIALCAPACITY];
+		this.connectorTrueDrivers = new int[INITIALCAPACITY];
+		this.connectorToggles = new int[INITIALCAPACITY];
+		this.connectorDamped = new boolean[INITIALCAPACITY];
+		this.connectorFlagged = new boolean[INITIALCAPACITY];
+		this.connectorMirrors = new SignalReceiver[INITIALCAPACITY];
+
+		this.cableSignals = new SignalStore(INITIALCAPACITY);
+		this.cableMirroredSignals = new SignalStore(INITIALCAPACITY);
+		this.cableMirrorPending = new boolean[INITIALCAPACITY];
+		this.cableStart = new int[INITIALCAPACITY];
+		this.cableEnd = new int[INITIALCAPACITY];
+		this.cableMirrors = new SignalReceiver[INITIALCAPACITY];
+
+		this.gateTypes = new GateType[INITIALCAPACITY];
+		this.gatePinStart = new int[INITIALCAPACITY];
+		this.gateInputAmount = new int[INITIALCAPACITY];
+		this.gateOutputAmount = new int[INITIALCAPACITY];
+		this.gatePins = new int[INITIALCAPACITY];
+		this.gateStates = new int[INITIALCAPACITY];
+		this.gateTables = new int[INITIALCAPACITY][];
+		this.pinAmount = 0;
+
+		this.mainWorker = new Worker(this.connectorSignals, this.cableSignals);
+		this.islandWorkers = new Worker[0];
+		this.islandWorkerIndices = new int[0];
+		this.propagationDepth = 0;
+		this.toggleLimit = GameSettings.signalToggleLimit;
+		this.parallelThreshold = GameSettings.parallelSignalThreshold;
+		this.flushing = false;
+
+		this.nextOutputSignals = new SignalStore(INITIALCAPACITY);
+		this.nextOutputWritten = new SignalStore(INITIALCAPACITY);
+		this.clocked = GameSettings.clockedTurns;
+		this.turnOpen = false;
+
+		this.compiled = false;
+	}
+
+
+	// GETTERS & SETTERS	---------------------------------------------
+
+	/**
+	 * @return The scheduler that handles the signal changes in this circuit 
+	 * on the game thread
+	 */
+	public SignalScheduler getScheduler()
+	{
+		return this.mainWorker.scheduler;
+	}
+
+	/**
+	 * @return Are the output signals set during a turn applied only once the 
+	 * turn ends
+	 */
+	public boolean isClocked()
+	{
+		return this.clocked;
+	}
+
+	/**
+	 * Changes whether the circuit is run in clocked mode. In clocked mode 
+	 * the output signals set during a turn are buffered and applied together 
+	 * at the end of the turn, in connector order. Outside turns the signals 
+	 * are always applied immediately.
+	 * 
+	 * @param clocked Should the circuit be run in clocked mode
+	 */
+	public void setClocked(boolean clocked)
+	{
+		// The buffered signals are applied before the mode changes
+		if (!clocked)
+			applyNextOutputs();
+
+		this.clocked = clocked;
+	}
+
+	/**
+	 * @param connector The index of a connector in this circuit
+	 * @return The current signal of the connector. False if there is no
+	 * such connector
+	 */
+	public boolean getConnectorSignal(int connector)
+	{
+		if (!this.connectorPool.isReserved(connector))
+			return false;
+		return this.connectorSignals.get(connector);
+	}
+
+	/**
+	 * @param cable The index of a cable in this circuit
+	 * @return The current signal of the cable. False if there is no such cable
+	 */
+	public boolean getCableSignal(int cable)
+	{
+		if (!this.cablePool.isReserved(cable))
+			return false;
+		return this.cableSignals.get(cable);
+	}
+
+	/**
+	 * @return How many separate islands the circuit consists of. Islands 
+	 * don't share any connectors and can be handled in parallel.
+	 */
+	public int getIslandAmount()
+	{
+		compile();
+		return this.islandAmount;
+	}
+
+	/**
+	 * @param connector The index of a connector in this circuit
+	 * @return Is the connector part of a signal loop or has it been damped 
+	 * during the current test
+	 */
+	public boolean isConnectorFlagged(int connector)
+	{
+		if (!this.connectorPool.isReserved(connector))
+			return false;
+		return this.connectorFlagged[connector];
+	}
+
+	/**
+	 * @return How many connectors there currently are in the circuit
+	 */
+	public int getConnectorAmount()
+	{
+		return this.connectorPool.getReservedAmount();
+	}
+
+	/**
+	 * @return How many cables there currently are in the circuit
+	 */
+	public int getCableAmount()
+	{
+		return this.cablePool.getReservedAmount();
+	}
+
+
+	// The following accessors are used by the other simulators in the 
+	// package. They read the compiled tables directly.
+
+	int getConnectorCapacity()
+	{
+		return this.connectorPool.getCapacity();
+	}
+
+	int getCableCapacity()
+	{
+		return this.cablePool.getCapacity();
+	}
+
+	int getGateCapacity()
+	{
+		return this.gatePool.getCapacity();
+	}
+
+	boolean containsConnector(int connector)
+	{
+		return this.connectorPool.isReserved(connector);
+	}
+
+	boolean containsCable(int cable)
+	{
+		return this.cablePool.isReserved(cable);
+	}
+
+	boolean containsGate(int gate)
+	{
+		return this.gatePool.isReserved(gate);
+	}
+
+	int getCableStart(int cable)
+	{
+		return this.cableStart[cable];
+	}
+
+	int getCableEnd(int cable)
+	{
+		return this.cableEnd[cable];
+	}
+
+	int getConnectorGate(int connector)
+	{
+		return this.connectorGate[connector];
+	}
+
+	SignalReceiver getCableMirror(int cable)
+	{
+		return this.cableMirrors[cable];
+	}
+
+	/**
+	 * @param connector The index of a connector in the circuit
+	 * @return The indices of the cables that start or end at the connector
+	 */
+	int[] getConnectedCables(int connector)
+	{
+		if (!this.connectorPool.isReserved(connector))
+			return new int[0];
+
+		compile();
+		int outStart = this.fanOutStart[connector];
+		int outAmount = this.fanOutStart[connector + 1] - outStart;
+		int inStart = this.fanInStart[connector];
+		int inAmount = this.fanInStart[connector + 1] - inStart;
+
+		int[] cables = new int[outAmount + inAmount];
+		System.arraycopy(this.fanOutCables, outStart, cables, 0, outAmount);
+		System.arraycopy(this.fanInCables, inStart, cables, outAmount, 
+				inAmount);
+
+		return cables;
+	}
+
+	int[] getFanOutStart()
+	{
+		return this.fanOutStart;
+	}
+
+	int[] getFanOutCables()
+	{
+		return this.fanOutCables;
+	}
+
+	int[] getFanInStart()
+	{
+		return this.fanInStart;
+	}
+
+	int[] getFanInCables()
+	{
+		return this.fanInCables;
+	}
+
+	GateType getGateType(int gate)
+	{
+		return this.gateTypes[gate];
+	}
+
+	int getGateInputAmount(int gate)
+	{
+		return this.gateInputAmount[gate];
+	}
+
+	int getGateOutputAmount(int gate)
+	{
+		return this.gateOutputAmount[gate];
+	}
+
+	int getGateInput(int gate, int index)
+	{
+		return this.gatePins[this.gatePinStart[gate] + index];
+	}
+
+	int getGateOutput(int gate, int index)
+	{
+		return this.gatePins[this.gatePinStart[gate] + 
+				this.gateInputAmount[gate] + index];
+	}
+
+	int getGateState(int gate)
+	{
+		return this.gateStates[gate];
+	}
+
+	int[] getGateTable(int gate)
+	{
+		return this.gateTables[gate];
+	}
+
+
+	// OTHER METHODS	-------------------------------------------------
+
+	/**
+	 * Adds a new connector to the circuit. The connector's signal is false
+	 * at first.
+	 *
+	 * @param mirror The signalReceiver that will be informed when the
+	 * connector's signal changes (optional)
+	 * @return The index of the new connector
+	 */
+	public int addConnector(SignalReceiver mirror)
+	{
+		int index = this.connectorPool.reserve();
+		ensureConnectorCapacity(index + 1);
+
+		this.connectorSignals.set(index, false);
+		this.connectorMirroredSignals.set(index, false);
+		this.connectorMirrorPending[index] = false;
+		this.connectorGate[index] = -1;
+		this.connectorTrueDrivers[index] = 0;
+		this.connectorToggles[index] = 0;
+		this.connectorDamped[index] = false;
+		this.connectorFlagged[index] = false;
+		this.connectorMirrors[index] = mirror;
+		this.compiled = false;
+
+		return index;
+	}
+
+	/**
+	 * Removes a connector from the circuit. Cables attached to the
+	 * connector are detached from it.
+	 *
+	 * @param connector The index of the connector to be removed
+	 */
+	public void removeConnector(int connector)
+	{
+		if (!this.connectorPool.isReserved(connector))
+			return;
+
+		// Detaches the cables that were still using the connector
+		int[] cables = getConnectedCables(connector);
+		for (int i = 0; i < cables.length; i++)
+		{
+			int cable = cables[i];
+			if (this.cableStart[cable] == connector)
+				connectCable(cable, -1, this.cableEnd[cable]);
+			if (this.cableEnd[cable] == connector)
+				connectCable(cable, this.cableStart[cable], -1);
+		}
+
+		this.connectorMirrors[connector] = null;
+		this.connectorPool.release(connector);
+		this.compiled = false;
+	}
+
+	/**
+	 * Adds a new cable to the circuit. The cable isn't connected to anything
+	 * at first.
+	 *
+	 * @param mirror The signalReceiver that will be informed when the
+	 * cable's signal changes (optional)
+	 * @return The index of the new cable
+	 */
+	public int addCable(SignalReceiver mirror)
+	{
+		int index = this.cablePool.reserve();
+		ensureCableCapacity(index + 1);
+
+		this.cableSignals.set(index, false);
+		this.cableMirroredSignals.set(index, false);
+		this.cableMirrorPending[index] = false;
+		this.cableStart[index] = -1;
+		this.cableEnd[index] = -1;
+		this.cableMirrors[index] = mirror;
+
+		return index;
+	}
+
+	/**
+	 * Removes a cable from the circuit. The cable's end connector will no
+	 * longer receive signal from it.
+	 *
+	 * @param cable The index of the cable to be removed
+	 */
+	public void removeCable(int cable)
+	{
+		if (!this.cablePool.isReserved(cable))
+			return;
+
+		connectCable(cable, -1, -1);
+		this.cableMirrors[cable] = null;
+		this.cablePool.release(cable);
+	}
+
+	/**
+	 * Changes the connectors the cable is attached to. The signal is
+	 * propagated through the circuit afterwards.
+	 *
+	 * @param cable The index of the cable
+	 * @param start The index of the output connector the cable starts from
+	 * (-1 if the cable doesn't have a start)
+	 * @param end The index of the input connector the cable ends to
+	 * (-1 if the cable doesn't have an end)
+	 */
+	public void connectCable(int cable, int start, int end)
+	{
+		if (!this.cablePool.isReserved(cable))
+		{
+			System.err.println("The circuit doesn't have a cable with index " +
+					cable);
+			return;
+		}
+
+		int oldStart = this.cableStart[cable];
+		int oldEnd = this.cableEnd[cable];
+
+		if (oldStart == start && oldEnd == end)
+			return;
+
+		startPropagation();
+
+		// A TRUE cable stops driving its old end and starts driving the new 
+		// one
+		if (this.cableSignals.get(cable) && oldEnd != end)
+		{
+			if (oldEnd >= 0)
+				removeTrueDriver(this.mainWorker, oldEnd);
+			if (end >= 0)
+				addTrueDriver(this.mainWorker, end);
+		}
+
+		this.cableStart[cable] = start;
+		this.cableEnd[cable] = end;
+		this.compiled = false;
+
+		// The cable sends the signal of its start connector. A cable that was
+		// removed from its start sends FALSE while cables that never had a
+		// start (test cables) keep their signal
+		boolean signal = this.cableSignals.get(cable);
+		if (start >= 0)
+			signal = this.connectorSignals.get(start);
+		else if (oldStart >= 0)
+			signal = false;
+
+		driveCable(this.mainWorker, cable, signal);
+
+		endPropagation();
+	}
+
+	/**
+	 * Changes the signal of a cable that doesn't have a start connector.
+	 * Cables that have a start connector always send its signal.
+	 *
+	 * @param cable The index of the cable
+	 * @param signal The new signal of the cable
+	 */
+	public void setCableSignal(int cable, boolean signal)
+	{
+		if (!this.cablePool.isReserved(cable) || this.cableStart[cable] >= 0)
+			return;
+
+		startPropagation();
+		driveCable(this.mainWorker, cable, signal);
+		endPropagation();
+	}
+
+	/**
+	 * Adds a new gate to the circuit. The gate calculates the signals of its
+	 * outputs from the signals of its inputs.
+	 *
+	 * @param type The type of the gate
+	 * @param inputs The indices of the gate's input connectors
+	 * @param outputs The indices of the gate's output connectors
+	 * @return The index of the new gate
+	 */
+	public int addGate(GateType type, int[] inputs, int[] outputs)
+	{
+		int index = this.gatePool.reserve();
+		ensureGateCapacity(index + 1);
+		ensurePinCapacity(this.pinAmount + inputs.length + outputs.length);
+
+		this.gateTypes[index] = type;
+		this.gatePinStart[index] = this.pinAmount;
+		this.gateInputAmount[index] = inputs.length;
+		this.gateOutputAmount[index] = outputs.length;
+		this.gateStates[index] = 0;
+		this.gateTables[index] = type == GateType.EXTERNAL ? null : 
+				type.getTable(inputs.length, outputs.length);
+
+		for (int i = 0; i < inputs.length; i++)
+		{
+			this.gatePins[this.pinAmount ++] = inputs[i];
+			this.connectorGate[inputs[i]] = index;
+		}
+		for (int i = 0; i < outputs.length; i++)
+		{
+			this.gatePins[this.pinAmount ++] = outputs[i];
+		}
+
+		// Calculates the initial output status
+		startPropagation();
+		evaluateGate(this.mainWorker, index);
+		endPropagation();
+
+		return index;
+	}
+
+	/**
+	 * Removes a gate from the circuit. The connectors of the gate stay in the
+	 * circuit until they are removed separately.
+	 *
+	 * @param gate The index of the gate to be removed
+	 */
+	public void removeGate(int gate)
+	{
+		if (!this.gatePool.isReserved(gate))
+			return;
+
+		for (int i = 0; i < this.gateInputAmount[gate]; i++)
+		{
+			this.connectorGate[this.gatePins[this.gatePinStart[gate] + i]] = -1;
+		}
+
+		this.gatePool.release(gate);
+		this.gateTables[gate] = null;
+		this.compiled = false;
+	}
+
+	/**
+	 * Returns a gate to its initial state (a counter back to 0, for example)
+	 * and propagates the new output signals through the circuit.
+	 *
+	 * @param gate The index of the gate
+	 */
+	public void resetGate(int gate)
+	{
+		if (!this.gatePool.isReserved(gate))
+			return;
+
+		// The previous inputs are part of the state as well
+		int inputs = 0;
+		int inputStart = this.gatePinStart[gate];
+		for (int i = 0; i < Math.min(this.gateInputAmount[gate], 2); i++)
+		{
+			if (this.connectorSignals.get(this.gatePins[inputStart + i]))
+				inputs |= 1 << i;
+		}
+		this.gateStates[gate] = this.gateTypes[gate].isSequential() ? inputs : 0;
+
+		startPropagation();
+		evaluateGate(this.mainWorker, gate);
+		endPropagation();
+	}
+
+	/**
+	 * @return A snapshot of the connectors' current signals
+	 * @see #resetSignals(long[], long[])
+	 */
+	public long[] getConnectorSnapshot()
+	{
+		return this.connectorSignals.snapshot();
+	}
+
+	/**
+	 * @return A snapshot of the cables' current signals
+	 * @see #resetSignals(long[], long[])
+	 */
+	public long[] getCableSnapshot()
+	{
+		return this.cableSignals.snapshot();
+	}
+
+	/**
+	 * Compares the connectors' current signals to a snapshot
+	 * 
+	 * @param connectorSnapshot A snapshot of the connectors' signals
+	 * @return How many connectors have a different signal than in the 
+	 * snapshot
+	 */
+	public int countChangedConnectors(long[] connectorSnapshot)
+	{
+		return this.connectorSignals.countDifferences(connectorSnapshot);
+	}
+
+	/**
+	 * Returns the signals of the circuit to a previously recorded state. 
+	 * The queued changes are discarded and the mirrors are informed about 
+	 * the signals that changed. Giving empty snapshots makes all the signals 
+	 * FALSE.
+	 * 
+	 * @param connectorSnapshot A snapshot of the connectors' signals
+	 * @param cableSnapshot A snapshot of the cables' signals
+	 */
+	public void resetSignals(long[] connectorSnapshot, long[] cableSnapshot)
+	{
+		startPropagation();
+
+		this.mainWorker.scheduler.clear();
+		this.nextOutputWritten.clear();
+		this.connectorSignals.reset(connectorSnapshot);
+		this.cableSignals.reset(cableSnapshot);
+
+		// Recounts the TRUE cables of each input
+		Arrays.fill(this.connectorTrueDrivers, 0);
+		for (int cable = 0; cable < this.cablePool.getCapacity(); cable++)
+		{
+			if (this.cablePool.isReserved(cable) && this.cableEnd[cable] >= 0 
+					&& this.cableSignals.get(cable))
+				this.connectorTrueDrivers[this.cableEnd[cable]] ++;
+		}
+
+		// Informs the mirrors whose signal changed
+		long[] mirrored = this.connectorMirroredSignals.snapshot();
+		for (int connector = this.connectorSignals.nextDifference(mirrored, 0); 
+				connector >= 0; connector = 
+				this.connectorSignals.nextDifference(mirrored, connector + 1))
+		{
+			if (this.connectorPool.isReserved(connector))
+				markConnectorChanged(this.mainWorker, connector);
+		}
+		mirrored = this.cableMirroredSignals.snapshot();
+		for (int cable = this.cableSignals.nextDifference(mirrored, 0); 
+				cable >= 0; 
+				cable = this.cableSignals.nextDifference(mirrored, cable + 1))
+		{
+			if (this.cablePool.isReserved(cable))
+				markCableChanged(this.mainWorker, cable);
+		}
+
+		endPropagation();
+	}
+
+	/**
+	 * Changes the signal sent by an output connector. This is how the
+	 * external gates (power sources, machines, etc.) send signals. The new
+	 * signal is propagated through the circuit.
+	 *
+	 * @param connector The index of the output connector
+	 * @param signal The new signal of the connector
+	 */
+	public void setOutputSignal(int connector, boolean signal)
+	{
+		if (!this.connectorPool.isReserved(connector))
+		{
+			System.err.println("The circuit doesn't have a connector with index "
+					+ connector);
+			return;
+		}
+
+		// In clocked mode, the signal is written to the next turn's buffer
+		if (this.clocked && this.turnOpen)
+		{
+			this.nextOutputSignals.set(connector, signal);
+			this.nextOutputWritten.set(connector, true);
+			return;
+		}
+
+		startPropagation();
+		driveConnector(this.mainWorker, connector, signal);
+		endPropagation();
+	}
+
+	private void driveConnector(Worker worker, int connector, boolean signal)
+	{
+		if (worker.connectorSignals.get(connector) == signal)
+			return;
+
+		worker.connectorSignals.set(connector, signal);
+		markConnectorChanged(worker, connector);
+
+		// Informs all the cables leaving the connector
+		compile();
+		for (int i = this.fanOutStart[connector];
+				i < this.fanOutStart[connector + 1]; i++)
+		{
+			driveCable(worker, this.fanOutCables[i], signal);
+		}
+	}
+
+	private void driveCable(Worker worker, int cable, boolean signal)
+	{
+		if (worker.cableSignals.get(cable) == signal)
+			return;
+
+		worker.cableSignals.set(cable, signal);
+		markCableChanged(worker, cable);
+
+		// The end connector keeps count of its TRUE cables
+		int end = this.cableEnd[cable];
+		if (end >= 0)
+		{
+			if (signal)
+				addTrueDriver(worker, end);
+			else
+				removeTrueDriver(worker, end);
+		}
+	}
+
+	private void addTrueDriver(Worker worker, int connector)
+	{
+		// The input is updated during the next delta cycle if it gains its 
+		// first TRUE cable
+		this.connectorTrueDrivers[connector] ++;
+		if (this.connectorTrueDrivers[connector] == 1)
+			worker.scheduler.schedule(connector);
+	}
+
+	private void removeTrueDriver(Worker worker, int connector)
+	{
+		this.connectorTrueDrivers[connector] --;
+		if (this.connectorTrueDrivers[connector] == 0)
+			worker.scheduler.schedule(connector);
+	}
+
+	// Recalculates the signal of an input connector from its cables. If the
+	// signal changes, the connector's gate is evaluated as well.
+	private void updateInput(Worker worker, int connector)
+	{
+		if (!this.connectorPool.isReserved(connector))
+			return;
+
+		// The signal of an input is true if any of its cables' signal is true
+		boolean signal = this.connectorTrueDrivers[connector] > 0;
+
+		if (signal == worker.connectorSignals.get(connector))
+			return;
+
+		worker.connectorSignals.set(connector, signal);
+		markConnectorChanged(worker, connector);
+
+		// Damped inputs don't inform their gates until the next turn
+		if (countToggle(worker, connector))
+			return;
+
+		// Informs the gate as well
+		if (this.connectorGate[connector] >= 0)
+			evaluateGate(worker, this.connectorGate[connector]);
+	}
+
+	/**
+	 * Starts a new turn. The schedulers get a new set of delta cycles, the 
+	 * toggle counts are reset and the damped inputs inform their gates 
+	 * again. The changes made during the turn are handled together once 
+	 * the turn is ended.
+	 * 
+	 * @see #endTurn()
+	 */
+	void startTurn()
+	{
+		startPropagation();
+		this.turnOpen = true;
+
+		this.mainWorker.scheduler.startTurn();
+		for (int i = 0; i < this.islandWorkers.length; i++)
+		{
+			this.islandWorkers[i].scheduler.startTurn();
+		}
+
+		resetToggles(true);
+	}
+
+	/**
+	 * Ends the turn started with startTurn and propagates the changes made 
+	 * during it. In clocked mode, the buffered output signals are applied 
+	 * first.
+	 * 
+	 * @see #startTurn()
+	 */
+	void endTurn()
+	{
+		this.turnOpen = false;
+		applyNextOutputs();
+		endPropagation();
+	}
+
+	/**
+	 * Flags or unflags a connector as a part of a problematic part of the 
+	 * circuit
+	 * 
+	 * @param connector The index of the connector
+	 * @param flagged Should the connector be flagged
+	 */
+	void setConnectorFlagged(int connector, boolean flagged)
+	{
+		if (!this.connectorPool.isReserved(connector) || 
+				this.connectorFlagged[connector] == flagged)
+			return;
+
+		this.connectorFlagged[connector] = flagged;
+		informFlagChange(connector);
+	}
+
+	/**
+	 * Removes the flags from all the connectors
+	 */
+	void clearFlags()
+	{
+		for (int connector = 0; connector < this.connectorFlagged.length; 
+				connector++)
+		{
+			if (this.connectorFlagged[connector])
+				setConnectorFlagged(connector, false);
+		}
+	}
+
+	private void resetToggles(boolean releaseDamped)
+	{
+		// Damped inputs keep their status until they are released
+		Worker worker = this.mainWorker;
+		int dampedAmount = 0;
+		for (int i = 0; i < worker.toggledConnectorAmount; i++)
+		{
+			int connector = worker.toggledConnectors[i];
+
+			if (!this.connectorDamped[connector])
+				this.connectorToggles[connector] = 0;
+			else if (!releaseDamped)
+				worker.toggledConnectors[dampedAmount ++] = connector;
+			else
+			{
+				this.connectorToggles[connector] = 0;
+				this.connectorDamped[connector] = false;
+				if (this.connectorPool.isReserved(connector) && 
+						this.connectorGate[connector] >= 0)
+					evaluateGate(worker, this.connectorGate[connector]);
+			}
+		}
+		worker.toggledConnectorAmount = dampedAmount;
+	}
+
+	// Returns true if the input is damped
+	private boolean countToggle(Worker worker, int connector)
+	{
+		if (this.connectorDamped[connector])
+			return true;
+
+		if (this.connectorToggles[connector] == 0)
+			worker.toggledConnectors = add(worker.toggledConnectors, 
+					worker.toggledConnectorAmount ++, connector);
+
+		this.connectorToggles[connector] ++;
+		if (this.connectorToggles[connector] <= this.toggleLimit)
+			return false;
+
+		// The input has changed too many times this turn and is damped. 
+		// Each connector is reported only once
+		if (!this.connectorFlagged[connector])
+			System.err.println("Signal of connector " + connector + 
+					" changed over " + this.toggleLimit + 
+					" times during a turn and is damped until the next turn");
+		this.connectorDamped[connector] = true;
+		if (!this.connectorFlagged[connector])
+		{
+			// The mirror is informed on the game thread
+			this.connectorFlagged[connector] = true;
+			worker.flaggedConnectors = add(worker.flaggedConnectors, 
+					worker.flaggedConnectorAmount ++, connector);
+		}
+		return true;
+	}
+
+	// Applies the output signals buffered during a clocked turn. The 
+	// connectors are handled in index order so the result doesn't depend on 
+	// the order in which the signals were set
+	private void applyNextOutputs()
+	{
+		long[] none = new long[0];
+		if (this.nextOutputWritten.nextDifference(none, 0) < 0)
+			return;
+
+		startPropagation();
+		for (int connector = this.nextOutputWritten.nextDifference(none, 0); 
+				connector >= 0; 
+				connector = this.nextOutputWritten.nextDifference(none, 
+				connector + 1))
+		{
+			if (this.connectorPool.isReserved(connector))
+				driveConnector(this.mainWorker, connector, 
+						this.nextOutputSignals.get(connector));
+		}
+		this.nextOutputWritten.clear();
+		endPropagation();
+	}
+
+	private void evaluateGate(Worker worker, int gate)
+	{
+		int[] table = this.gateTables[gate];
+		if (table == null)
+			return;
+
+		// The input signals are packed into the table index
+		int inputStart = this.gatePinStart[gate];
+		int inputAmount = this.gateInputAmount[gate];
+		int index = this.gateStates[gate] << inputAmount;
+
+		for (int i = 0; i < inputAmount; i++)
+		{
+			if (worker.connectorSignals.get(this.gatePins[inputStart + i]))
+				index |= 1 << i;
+		}
+
+		int entry = table[index];
+		this.gateStates[gate] = entry >>> GateType.STATESHIFT;
+
+		int outputStart = inputStart + inputAmount;
+		for (int i = 0; i < this.gateOutputAmount[gate]; i++)
+		{
+			driveConnector(worker, this.gatePins[outputStart + i], 
+					((entry >>> i) & 1) != 0);
+		}
+	}
+
+	/**
+	 * Compiles the wiring of the circuit if it has changed since the last
+	 * compilation. The topology accessors expect a compiled circuit.
+	 */
+	void compile()
+	{
+		if (this.compiled)
+			return;
+
+		int connectorCapacity = this.connectorPool.getCapacity();
+		int cableCapacity = this.cablePool.getCapacity();
+
+		// Counts the fan-out and fan-in of each connector
+		this.fanOutStart = new int[connectorCapacity + 1];
+		this.fanInStart = new int[connectorCapacity + 1];
+		int outAmount = 0, inAmount = 0;
+
+		for (int cable = 0; cable < cableCapacity; cable++)
+		{
+			if (!this.cablePool.isReserved(cable))
+				continue;
+			if (this.cableStart[cable] >= 0)
+			{
+				this.fanOutStart[this.cableStart[cable] + 1] ++;
+				outAmount ++;
+			}
+			if (this.cableEnd[cable] >= 0)
+			{
+				this.fanInStart[this.cableEnd[cable] + 1] ++;
+				inAmount ++;
+			}
+		}
+
+		for (int i = 0; i < connectorCapacity; i++)
+		{
+			this.fanOutStart[i + 1] += this.fanOutStart[i];
+			this.fanInStart[i + 1] += this.fanInStart[i];
+		}
+
+		// Fills the cable tables
+		this.fanOutCables = new int[outAmount];
+		this.fanInCables = new int[inAmount];
+		int[] outFill = Arrays.copyOf(this.fanOutStart, connectorCapacity);
+		int[] inFill = Arrays.copyOf(this.fanInStart, connectorCapacity);
+
+		for (int cable = 0; cable < cableCapacity; cable++)
+		{
+			if (!this.cablePool.isReserved(cable))
+				continue;
+			if (this.cableStart[cable] >= 0)
+				this.fanOutCables[outFill[this.cableStart[cable]] ++] = cable;
+			if (this.cableEnd[cable] >= 0)
+				this.fanInCables[inFill[this.cableEnd[cable]] ++] = cable;
+		}
+
+		// Packs the pins of the remaining gates
+		int[] newPins = new int[Math.max(INITIALCAPACITY, this.pinAmount)];
+		int newPinAmount = 0;
+		for (int gate = 0; gate < this.gatePool.getCapacity(); gate++)
+		{
+			if (!this.gatePool.isReserved(gate))
+				continue;
+
+			int pins = this.gateInputAmount[gate] + this.gateOutputAmount[gate];
+			System.arraycopy(this.gatePins, this.gatePinStart[gate], newPins,
+					newPinAmount, pins);
+			this.gatePinStart[gate] = newPinAmount;
+			newPinAmount += pins;
+		}
+		this.gatePins = newPins;
+		this.pinAmount = newPinAmount;
+
+		findIslands();
+
+		this.compiled = true;
+	}
+
+	private void findIslands()
+	{
+		// Connectors are joined by cables and logic gates. External gates 
+		// don't pass signals so they don't join their connectors
+		int connectorCapacity = this.connectorPool.getCapacity();
+		int[] parents = new int[connectorCapacity];
+		for (int i = 0; i < connectorCapacity; i++)
+		{
+			parents[i] = i;
+		}
+
+		for (int cable = 0; cable < this.cablePool.getCapacity(); cable++)
+		{
+			if (this.cablePool.isReserved(cable) && this.cableStart[cable] >= 0 
+					&& this.cableEnd[cable] >= 0)
+				join(parents, this.cableStart[cable], this.cableEnd[cable]);
+		}
+		for (int gate = 0; gate < this.gatePool.getCapacity(); gate++)
+		{
+			if (!this.gatePool.isReserved(gate) || 
+					this.gateTypes[gate] == GateType.EXTERNAL)
+				continue;
+
+			int pinStart = this.gatePinStart[gate];
+			int pins = this.gateInputAmount[gate] + this.gateOutputAmount[gate];
+			for (int i = 1; i < pins; i++)
+			{
+				join(parents, this.gatePins[pinStart], 
+						this.gatePins[pinStart + i]);
+			}
+		}
+
+		// Numbers the islands
+		this.connectorIsland = new int[connectorCapacity];
+		this.islandAmount = 0;
+		for (int i = 0; i < connectorCapacity; i++)
+		{
+			int root = findRoot(parents, i);
+			if (root == i)
+				this.connectorIsland[i] = this.islandAmount ++;
+		}
+		for (int i = 0; i < connectorCapacity; i++)
+		{
+			this.connectorIsland[i] = 
+					this.connectorIsland[findRoot(parents, i)];
+		}
+	}
+
+	private static int findRoot(int[] parents, int index)
+	{
+		while (parents[index] != index)
+		{
+			// Halves the path on the way
+			parents[index] = parents[parents[index]];
+			index = parents[index];
+		}
+
+		return index;
+	}
+
+	private static void join(int[] parents, int first, int second)
+	{
+		int firstRoot = findRoot(parents, first);
+		int secondRoot = findRoot(parents, second);
+		if (firstRoot != secondRoot)
+			parents[secondRoot] = firstRoot;
+	}
+
+	private void startPropagation()
+	{
+		this.propagationDepth ++;
+	}
+
+	private void endPropagation()
+	{
+		this.propagationDepth --;
+
+		if (this.propagationDepth > 0)
+			return;
+
+		// Handles the queued changes and once the signal has been propagated, 
+		// informs the mirrors
+		SignalScheduler scheduler = this.mainWorker.scheduler;
+		if (scheduler.getQueueSize() >= this.parallelThreshold)
+			drainInParallel();
+		else
+			scheduler.drain();
+
+		// The toggles are counted until the circuit settles, so that 
+		// circuits without turns (in the manual, for example) don't collect 
+		// toggles forever
+		if (scheduler.getQueueSize() == 0)
+			resetToggles(false);
+
+		// The connectors damped during the propagation are now flagged
+		Worker main = this.mainWorker;
+		while (main.flaggedConnectorAmount > 0)
+			informFlagChange(main.flaggedConnectors[
+					-- main.flaggedConnectorAmount]);
+
+		if (!this.flushing)
+			informMirrors();
+	}
+
+	private void drainInParallel()
+	{
+		compile();
+
+		// Distributes the queued inputs to the workers of their islands
+		if (this.islandWorkerIndices.length < this.islandAmount)
+		{
+			this.islandWorkerIndices = new int[this.islandAmount];
+			Arrays.fill(this.islandWorkerIndices, -1);
+		}
+
+		SignalScheduler mainScheduler = this.mainWorker.scheduler;
+		int workerAmount = 0;
+		int connector;
+		while ((connector = mainScheduler.poll()) >= 0)
+		{
+			int island = this.connectorIsland[connector];
+			int workerIndex = this.islandWorkerIndices[island];
+			if (workerIndex < 0)
+			{
+				workerIndex = workerAmount ++;
+				this.islandWorkerIndices[island] = workerIndex;
+				if (workerIndex >= this.islandWorkers.length)
+				{
+					this.islandWorkers = Arrays.copyOf(this.islandWorkers, 
+							workerAmount);
+					this.islandWorkers[workerIndex] = new Worker(
+							new SignalStore(INITIALCAPACITY), 
+							new SignalStore(INITIALCAPACITY));
+				}
+				this.islandWorkers[workerIndex].island = island;
+			}
+
+			this.islandWorkers[workerIndex].scheduler.schedule(connector);
+		}
+
+		// Each island works on a copy of the signals. The islands don't share 
+		// any connectors or cables, so their changes can be merged back 
+		// afterwards even if their signals share store words
+		long[] connectorSnapshot = this.connectorSignals.snapshot();
+		long[] cableSnapshot = this.cableSignals.snapshot();
+		for (int i = 0; i < workerAmount; i++)
+		{
+			this.islandWorkers[i].connectorSignals.reset(connectorSnapshot);
+			this.islandWorkers[i].cableSignals.reset(cableSnapshot);
+		}
+
+		// Each island is handled in a separate task
+		if (workerAmount == 1)
+			this.islandWorkers[0].scheduler.drain();
+		else
+			getPool().invoke(new IslandTask(this.islandWorkers, 0, 
+					workerAmount));
+
+		// Collects the results on the game thread
+		Worker main = this.mainWorker;
+		for (int i = 0; i < workerAmount; i++)
+		{
+			Worker worker = this.islandWorkers[i];
+			this.islandWorkerIndices[worker.island] = -1;
+
+			this.connectorSignals.mergeChanges(worker.connectorSignals, 
+					connectorSnapshot);
+			this.cableSignals.mergeChanges(worker.cableSignals, cableSnapshot);
+
+			while (worker.pendingConnectorAmount > 0)
+				main.pendingConnectors = add(main.pendingConnectors, 
+						main.pendingConnectorAmount ++, worker.pendingConnectors[
+						-- worker.pendingConnectorAmount]);
+			while (worker.pendingCableAmount > 0)
+				main.pendingCables = add(main.pendingCables, 
+						main.pendingCableAmount ++, worker.pendingCables[
+						-- worker.pendingCableAmount]);
+			while (worker.toggledConnectorAmount > 0)
+				main.toggledConnectors = add(main.toggledConnectors, 
+						main.toggledConnectorAmount ++, 
+						worker.toggledConnectors[
+						-- worker.toggledConnectorAmount]);
+			while (worker.flaggedConnectorAmount > 0)
+				main.flaggedConnectors = add(main.flaggedConnectors, 
+						main.flaggedConnectorAmount ++, 
+						worker.flaggedConnectors[
+						-- worker.flaggedConnectorAmount]);
+
+			// Inputs of oscillating islands wait for the next turn
+			while ((connector = worker.scheduler.poll()) >= 0)
+				mainScheduler.schedule(connector);
+		}
+	}
+
+	private static ForkJoinPool getPool()
+	{
+		if (pool == null)
+			pool = new ForkJoinPool();
+		return pool;
+	}
+
+	private static int[] add(int[] array, int index, int value)
+	{
+		// Grows the array if necessary
+		if (index >= array.length)
+			array = Arrays.copyOf(array, Math.max(index + 1, array.length * 2));
+		array[index] = value;
+		return array;
+	}
+
+	private void markConnectorChanged(Worker worker, int connector)
+	{
+		if (this.connectorMirrors[connector] == null ||
+				this.connectorMirrorPending[connector])
+			return;
+
+		this.connectorMirrorPending[connector] = true;
+		worker.pendingConnectors = add(worker.pendingConnectors, 
+				worker.pendingConnectorAmount ++, connector);
+	}
+
+	private void markCableChanged(Worker worker, int cable)
+	{
+		if (this.cableMirrors[cable] == null || this.cableMirrorPending[cable])
+			return;
+
+		this.cableMirrorPending[cable] = true;
+		worker.pendingCables = add(worker.pendingCables, 
+				worker.pendingCableAmount ++, cable);
+	}
+
+	private void informFlagChange(int connector)
+	{
+		if (this.connectorMirrors[connector] instanceof FlagReceiver)
+			((FlagReceiver) this.connectorMirrors[connector]).onFlagChange(
+					this.connectorFlagged[connector]);
+	}
+
+	private void informMirrors()
+	{
+		// The mirrors may cause new changes in the circuit, which are
+		// handled in the same loop. Mirrors are only informed if the signal 
+		// is different from the one they were last informed about
+		this.flushing = true;
+		Worker worker = this.mainWorker;
+
+		while (worker.pendingConnectorAmount > 0 || 
+				worker.pendingCableAmount > 0)
+		{
+			while (worker.pendingCableAmount > 0)
+			{
+				int cable = worker.pendingCables[-- worker.pendingCableAmount];
+				this.cableMirrorPending[cable] = false;
+
+				boolean signal = this.cableSignals.get(cable);
+				if (this.cableMirrors[cable] == null || 
+						signal == this.cableMirroredSignals.get(cable))
+					continue;
+
+				this.cableMirroredSignals.set(cable, signal);
+				this.cableMirrors[cable].onSignalChange(signal, null);
+			}
+			while (worker.pendingConnectorAmount > 0)
+			{
+				int connector =
+						worker.pendingConnectors[-- worker.pendingConnectorAmount];
+				this.connectorMirrorPending[connector] = false;
+
+				boolean signal = this.connectorSignals.get(connector);
+				if (this.connectorMirrors[connector] == null || 
+						signal == this.connectorMirroredSignals.get(connector))
+					continue;
+
+				this.connectorMirroredSignals.set(connector, signal);
+				this.connectorMirrors[connector].onSignalChange(signal, null);
+			}
+		}
+
+		this.flushing = false;
+	}
+
+	private void ensureConnectorCapacity(int capacity)
+	{
+		if (capacity <= this.connectorGate.length)
+			return;
+
+		int newCapacity = Math.max(capacity, this.connectorGate.length * 2);
+		this.connectorSignals.ensureCapacity(newCapacity);
+		this.connectorMirroredSignals.ensureCapacity(newCapacity);
+		this.nextOutputSignals.ensureCapacity(newCapacity);
+		this.nextOutputWritten.ensureCapacity(newCapacity);
+		this.connectorMirrorPending = Arrays.copyOf(
+				this.connectorMirrorPending, newCapacity);
+		this.connectorGate = Arrays.copyOf(this.connectorGate, newCapacity);
+		this.connectorTrueDrivers = Arrays.copyOf(this.connectorTrueDrivers, 
+				newCapacity);
+		this.connectorToggles = Arrays.copyOf(this.connectorToggles, 
+				newCapacity);
+		this.connectorDamped = Arrays.copyOf(this.connectorDamped, newCapacity);
+		this.connectorFlagged = Arrays.copyOf(this.connectorFlagged, 
+				newCapacity);
+		this.connectorMirrors = Arrays.copyOf(this.connectorMirrors,
+				newCapacity);
+	}
+
+	private void ensureCableCapacity(int capacity)
+	{
+		if (capacity <= this.cableStart.length)
+			return;
+
+		int newCapacity = Math.max(capacity, this.cableStart.length * 2);
+		this.cableSignals.ensureCapacity(newCapacity);
+		this.cableMirroredSignals.ensureCapacity(newCapacity);
+		this.cableMirrorPending = Arrays.copyOf(this.cableMirrorPending,
+				newCapacity);
+		this.cableStart = Arrays.copyOf(this.cableStart, newCapacity);
+		this.cableEnd = Arrays.copyOf(this.cableEnd, newCapacity);
+		this.cableMirrors = Arrays.copyOf(this.cableMirrors, newCapacity);
+	}
+
+	private void ensureGateCapacity(int capacity)
+	{
+		if (capacity <= this.gateTypes.length)
+			return;
+
+		int newCapacity = Math.max(capacity, this.gateTypes.length * 2);
+		this.gateTypes = Arrays.copyOf(this.gateTypes, newCapacity);
+		this.gatePinStart = Arrays.copyOf(this.gatePinStart, newCapacity);
+		this.gateInputAmount = Arrays.copyOf(this.gateInputAmount, newCapacity);
+		this.gateOutputAmount = Arrays.copyOf(this.gateOutputAmount,
+				newCapacity);
+		this.gateStates = Arrays.copyOf(this.gateStates, newCapacity);
+		this.gateTables = Arrays.copyOf(this.gateTables, newCapacity);
+	}
+
+	private void ensurePinCapacity(int capacity)
+	{
+		if (capacity > this.gatePins.length)
+			this.gatePins = Arrays.copyOf(this.gatePins,
+					Math.max(capacity, this.gatePins.length * 2));
+	}
+
+
+	// SUBCLASSES	-----------------------------------------------------
+
+	/**
+	 * Worker holds the state of a single propagation thread. The circuit's 
+	 * tables are shared between the workers, which is safe since each 
+	 * worker only touches the connectors of its own island. The packed 
+	 * signals are the exception: island workers use copies of their own, 
+	 * which are merged back once all the islands have been handled.
+	 */
+	private class Worker implements SignalScheduler.InputUpdater
+	{
+		// ATTRIBUTES	-------------------------------------------------
+
+		private SignalScheduler scheduler;
+		private SignalStore connectorSignals, cableSignals;
+		private int[] pendingConnectors, pendingCables, toggledConnectors, 
+				flaggedConnectors;
+		private int pendingConnectorAmount, pendingCableAmount, 
+				toggledConnectorAmount, flaggedConnectorAmount, island;
+
+
+		// CONSTRUCTOR	-------------------------------------------------
+
+		public Worker(SignalStore connectorSignals, SignalStore cableSignals)
+		{
+			// Initializes attributes
+			this.scheduler = new SignalScheduler(this, 
+					GameSettings.deltaCycleLimit);
+			this.connectorSignals = connectorSignals;
+			this.cableSignals = cableSignals;
+			this.pendingConnectors = new int[INITIALCAPACITY];
+			this.pendingCables = new int[INITIALCAPACITY];
+			this.toggledConnectors = new int[INITIALCAPACITY];
+			this.flaggedConnectors = new int[INITIALCAPACITY];
+			this.pendingConnectorAmount = 0;
+			this.pendingCableAmount = 0;
+			this.toggledConnectorAmount = 0;
+			this.flaggedConnectorAmount = 0;
+			this.island = -1;
+		}
+
+
+		// IMPLEMENTED METHODS	-----------------------------------------
+
+		@Override
+		public void updateInput(int connector)
+		{
+			SignalCircuit.this.updateInput(this, connector);
+		}
+	}
+
+	/**
+	 * IslandTask drains the schedulers of a range of island workers, 
+	 * splitting the range until there's only one worker per task
+	 */
+	private static class IslandTask extends RecursiveAction
+	{
+		// ATTRIBUTES	-------------------------------------------------
+
+		private static final long serialVersionUID = 1L;
+
+		private Worker[] workers;
+		private int start, end;
+
+
+		// CONSTRUCTOR	-------------------------------------------------
+
+		public IslandTask(Worker[] workers, int start, int end)
+		{
+			// Initializes attributes
+			this.workers = workers;
+			this.start = start;
+			this.end = end;
+		}
+
+
+		// IMPLEMENTED METHODS	-----------------------------------------
+
+		@Override
+		protected void compute()
+		{
+			if (this.end - this.start == 1)
+			{
+				this.workers[this.start].scheduler.drain();
+				return;
+			}
+
+			int middle = (this.start + this.end) / 2;
+			invokeAll(new IslandTask(this.workers, this.start, middle), 
+					new IslandTask(this.workers, middle, this.end));
+		}
+	}
+
+	/**
+	 * IndexPool hands out indices for the circuit's elements. Indices of
+	 * removed elements are reused so that the tables stay dense.
+	 */
+	private static class IndexPool
+	{
+		// ATTRIBUTES	-------------------------------------------------
+
+		private boolean[] reserved;
+		private int[] freeIndices;
+		private int capacity, freeAmount;
+
+
+		// CONSTRUCTOR	-------------------------------------------------
+
+		public IndexPool()
+		{
+			// Initializes attributes
+			this.reserved = new boolean[INITIALCAPACITY];
+			this.freeIndices = new int[INITIALCAPACITY];
+			this.capacity = 0;
+			this.freeAmount = 0;
+		}
+
+
+		// OTHER METHODS	---------------------------------------------
+
+		public int reserve()
+		{
+			int index;
+
+			// Uses a freed index if possible
+			if (this.freeAmount > 0)
+				index = this.freeIndices[-- this.freeAmount];
+			else
+			{
+				index = this.capacity ++;
+				if (index >= this.reserved.length)
+					this.reserved = Arrays.copyOf(this.reserved,
+							this.reserved.length * 2);
+			}
+
+			this.reserved[index] = true;
+			return index;
+		}
+
+		public void release(int index)
+		{
+			if (!isReserved(index))
+				return;
+
+			this.reserved[index] = false;
+			if (this.freeAmount == this.freeIndices.length)
+				this.freeIndices = Arrays.copyOf(this.freeIndices,
+						this.freeIndices.length * 2);
+			this.freeIndices[this.freeAmount ++] = index;
+		}
+
+		public boolean isReserved(int index)
+		{
+			return index >= 0 && index < this.capacity && this.reserved[index];
+		}
+
+		/**
+		 * @return The size of the index space (reserved and free indices)
+		 */
+		public int getCapacity()
+		{
+			return this.capacity;
+		}
+
+		public int getReservedAmount()
+		{
+			return this.capacity - this.freeAmount;
+		}
+	}
+}
@@ -0,0 +1,293 @@
+package uninamo_components;
+
+import java.util.Random;
+
+import uninamo_gameplaysupport.TestHandler;
+import uninamo_gameplaysupport.TestListener;
+import uninamo_main.GameSettings;
+
+/**
+ * SignalLoopDetector looks for signal loops in a signalCircuit each time a
+ * test starts. Connectors that are part of a loop are flagged so that the
+ * player can see them. The flags are removed when the test ends. Circuits 
+ * with loops are also run through the combinations of their inputs with a 
+ * signalVectorSimulator to find out whether the loops actually oscillate.
+ *
+ * @author Mikko Hilpinen
+ * @since 28.3.2014
+ * @see SignalCircuit
+ * @see SignalVectorSimulator
+ */
+public class SignalLoopDetector implements TestListener
+{
+	// ATTRIBUTES	-----------------------------------------------------
+
+	private SignalCircuit circuit;
+	private boolean dead;
+
+	// Tarjan's algorithm
+	private int[] order, lowLink, stack, callStack, edgeProgress;
+	private boolean[] onStack;
+	private int orderCounter, stackSize;
+
+	// The inputs past the exhaustively simulated ones receive the same 
+	// pseudo-random signals on every run
+	private static final int MAXBATCHES = 64;
+	private static final long RANDOMSEED = 1404;
+
+
+	// CONSTRUCTOR	-----------------------------------------------------
+
+	/**
+	 * Creates a new loop detector
+	 *
+	 * @param circuit The circuit that is checked for loops
+	 * @param testHandler The testHandler that will inform the detector about
+	 * test events
+	 */
+	public SignalLoopDetector(SignalCircuit circuit, TestHandler testHandler)
+	{
+		// Initializes attributes
+		this.circuit = circuit;
+		this.dead = false;
+
+		// Adds the object to the handler(s)
+		if (testHandler != null)
+			testHandler.addTestable(this);
+	}
+
+
+	// IMPLEMENTED METHODS	---------------------------------------------
+
+	@Override
+	public boolean isDead()
+	{
+		return this.dead;
+	}
+
+	@Override
+	public void kill()
+	{
+		this.dead = true;
+	}
+
+	@Override
+	public void onTestStart()
+	{
+		int loops = findLoops();
+
+		if (loops > 0)
+		{
+			System.err.println("The circuit contains " + loops +
+					" signal loop(s). The connectors in them are flagged.");
+
+			if (!settlesWithAllInputs())
+				System.err.println("The circuit doesn't settle with all of " +
+						"its inputs and will oscillate during the test.");
+		}
+	}
+
+	@Override
+	public void onTestEnd()
+	{
+		this.circuit.clearFlags();
+	}
+
+
+	// OTHER METHODS	-------------------------------------------------
+
+	/**
+	 * Finds the strongly connected parts of the circuit and flags the
+	 * connectors that are part of them.
+	 *
+	 * @return How many loops were found
+	 */
+	public int findLoops()
+	{
+		this.circuit.compile();
+
+		int capacity = this.circuit.getConnectorCapacity();
+		this.order = new int[capacity];
+		this.lowLink = new int[capacity];
+		this.stack = new int[capacity];
+		this.callStack = new int[capacity];
+		this.edgeProgress = new int[capacity];
+		this.onStack = new boolean[capacity];
+		this.orderCounter = 0;
+		this.stackSize = 0;
+
+		int loops = 0;
+		for (int connector = 0; connector < capacity; connector++)
+		{
+			if (this.circuit.containsConnector(connector) &&
+					this.order[connector] == 0)
+				loops += visit(connector);
+		}
+
+		// The tables are only needed during the search
+		this.order = null;
+		this.lowLink = null;
+		this.stack = null;
+		this.callStack = null;
+		this.edgeProgress = null;
+		this.onStack = null;
+
+		return loops;
+	}
+
+	/**
+	 * Checks whether the circuit settles with every combination of the 
+	 * signals sent by the machines. 64 combinations are simulated at once 
+	 * and up to 64 such batches are run, which covers all the combinations 
+	 * of up to 12 machine outputs. The rest of the outputs receive 
+	 * pseudo-random signals that are the same on every run, so the same 
+	 * circuit always gets the same verdict.
+	 *
+	 * @return Does the circuit settle in every simulated scenario
+	 */
+	public boolean settlesWithAllInputs()
+	{
+		SignalVectorSimulator simulator = new SignalVectorSimulator(
+				this.circuit, GameSettings.deltaCycleLimit);
+
+		// The outputs of the external gates are the inputs of the circuit
+		int[] inputs = new int[this.circuit.getConnectorCapacity()];
+		int inputAmount = 0;
+		for (int gate = 0; gate < this.circuit.getGateCapacity(); gate++)
+		{
+			if (!this.circuit.containsGate(gate) || 
+					this.circuit.getGateType(gate) != GateType.EXTERNAL)
+				continue;
+
+			for (int o = 0; o < this.circuit.getGateOutputAmount(gate); o++)
+				inputs[inputAmount ++] = this.circuit.getGateOutput(gate, o);
+		}
+
+		// The first 6 inputs go through their combinations inside a batch, 
+		// the next ones are constant during a batch and count the batches
+		int batchInputs = Math.min(Math.max(inputAmount - 6, 0), 
+				Integer.numberOfTrailingZeros(MAXBATCHES));
+		Random random = new Random(RANDOMSEED);
+		for (int batch = 0; batch < 1 << batchInputs; batch++)
+		{
+			for (int i = 0; i < inputAmount; i++)
+			{
+				long pattern;
+				if (i < 6)
+					pattern = SignalVectorSimulator.getExhaustivePattern(i);
+				else if (i < 6 + batchInputs)
+					pattern = ((batch >>> (i - 6)) & 1) == 0 ? 0 : -1L;
+				else
+					pattern = random.nextLong();
+
+				simulator.setSourceVector(inputs[i], pattern);
+			}
+
+			if (!simulator.simulate())
+				return false;
+		}
+
+		return true;
+	}
+
+	// Goes through the connectors reachable from the root. The recursion is
+	// done with a stack of its own since circuits may be very deep. Returns
+	// the number of loops found
+	private int visit(int root)
+	{
+		int loops = 0;
+		int depth = 0;
+
+		open(root);
+		this.callStack[depth ++] = root;
+
+		while (depth > 0)
+		{
+			int connector = this.callStack[depth - 1];
+			int next = getEdge(connector, this.edgeProgress[connector] ++);
+
+			if (next >= 0)
+			{
+				if (this.order[next] == 0)
+				{
+					open(next);
+					this.callStack[depth ++] = next;
+				}
+				else if (this.onStack[next])
+					this.lowLink[connector] = Math.min(this.lowLink[connector],
+							this.order[next]);
+				continue;
+			}
+			else if (next == -1)
+				continue;
+
+			// All edges have been handled, closes the connector
+			depth --;
+			if (depth > 0)
+			{
+				int parent = this.callStack[depth - 1];
+				this.lowLink[parent] = Math.min(this.lowLink[parent],
+						this.lowLink[connector]);
+			}
+
+			if (this.lowLink[connector] != this.order[connector])
+				continue;
+
+			// The connector is the root of a component. Components with
+			// more than one connector are loops
+			int size = 0;
+			int member;
+			do
+			{
+				member = this.stack[-- this.stackSize];
+				this.onStack[member] = false;
+				size ++;
+			}
+			while (member != connector);
+
+			if (size > 1)
+			{
+				loops ++;
+				for (int i = this.stackSize; i < this.stackSize + size; i++)
+				{
+					this.circuit.setConnectorFlagged(this.stack[i], true);
+				}
+			}
+		}
+
+		return loops;
+	}
+
+	private void open(int connector)
+	{
+		this.orderCounter ++;
+		this.order[connector] = this.orderCounter;
+		this.lowLink[connector] = this.orderCounter;
+		this.edgeProgress[connector] = 0;
+		this.stack[this.stackSize ++] = connector;
+		this.onStack[connector] = true;
+	}
+
+	// Returns the index'th connector the signal moves to from the given
+	// connector. -1 is returned for edges that should be skipped and -2 once
+	// there are no edges left. Outputs lead to the ends of their cables and
+	// inputs lead to the outputs of their logic gate.
+	private int getEdge(int connector, int index)
+	{
+		SignalCircuit circuit = this.circuit;
+		int[] fanOutStart = circuit.getFanOutStart();
+		int fanOut = fanOutStart[connector + 1] - fanOutStart[connector];
+
+		if (index < fanOut)
+			return circuit.getCableEnd(
+					circuit.getFanOutCables()[fanOutStart[connector] + index]);
+
+		index -= fanOut;
+		int gate = circuit.getConnectorGate(connector);
+		if (gate < 0 || circuit.getGateType(gate) == GateType.EXTERNAL ||
+				index >= circuit.getGateOutputAmount(gate))
+			return -2;
+
+		return circuit.getGateOutput(gate, index);
+	}
+}
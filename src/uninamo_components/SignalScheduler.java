@@ -0,0 +1,239 @@
+package uninamo_components;
+
+/**
+ * SignalScheduler queues the signal changes in a signalCircuit and handles
+ * them breadth-first. Each delta cycle handles the inputs that changed
+ * during the previous cycle, so deep component chains don't deepen the
+ * stack. A circuit that doesn't settle within the given amount of delta
+ * cycles is considered oscillating and the rest of the events wait for the
+ * next turn.
+ *
+ * @author Mikko Hilpinen
+ * @since 26.3.2014
+ * @see SignalCircuit
+ */
+public class SignalScheduler
+{
+	// ATTRIBUTES	-----------------------------------------------------
+
+	private InputUpdater updater;
+	private int[] queue;
+	private boolean[] scheduled;
+	private int queueStart, queueSize;
+	private int deltaCycleLimit, deltaCyclesLeft;
+	private boolean draining, oscillating;
+
+
+	// CONSTRUCTOR	-----------------------------------------------------
+
+	/**
+	 * Creates a new signalScheduler
+	 *
+	 * @param updater The updater that handles the input updates
+	 * @param deltaCycleLimit How many delta cycles the scheduler can handle
+	 * during a single turn before the circuit is considered oscillating
+	 */
+	SignalScheduler(InputUpdater updater, int deltaCycleLimit)
+	{
+		// Initializes attributes
+		this.updater = updater;
+		this.queue = new int[16];
+		this.scheduled = new boolean[16];
+		this.queueStart = 0;
+		this.queueSize = 0;
+		this.deltaCycleLimit = deltaCycleLimit;
+		this.deltaCyclesLeft = deltaCycleLimit;
+		this.draining = false;
+		this.oscillating = false;
+	}
+
+
+	// GETTERS & SETTERS	---------------------------------------------
+
+	/**
+	 * @return Did the circuit fail to settle within the delta cycle limit.
+	 * The status is reset once the circuit settles.
+	 */
+	public boolean isOscillating()
+	{
+		return this.oscillating;
+	}
+
+	/**
+	 * @return How many input updates are currently waiting in the queue
+	 */
+	public int getQueueSize()
+	{
+		return this.queueSize;
+	}
+
+	/**
+	 * @return How many delta cycles the scheduler can handle during a single
+	 * turn
+	 */
+	public int getDeltaCycleLimit()
+	{
+		return this.deltaCycleLimit;
+	}
+
+	/**
+	 * Changes the amount of delta cycles the scheduler can handle during a
+	 * single turn. The current turn's delta cycles are reset as well.
+	 *
+	 * @param deltaCycleLimit The new delta cycle limit
+	 */
+	public void setDeltaCycleLimit(int deltaCycleLimit)
+	{
+		this.deltaCycleLimit = deltaCycleLimit;
+		this.deltaCyclesLeft = deltaCycleLimit;
+	}
+
+
+	// OTHER METHODS	-------------------------------------------------
+
+	/**
+	 * Queues an input connector to be updated. An input that is already in
+	 * the queue won't be added again.
+	 *
+	 * @param connector The index of the input connector in the circuit
+	 */
+	public void schedule(int connector)
+	{
+		if (connector >= this.scheduled.length)
+		{
+			boolean[] newScheduled = new boolean[Math.max(connector + 1,
+					this.scheduled.length * 2)];
+			System.arraycopy(this.scheduled, 0, newScheduled, 0,
+					this.scheduled.length);
+			this.scheduled = newScheduled;
+		}
+		if (this.scheduled[connector])
+			return;
+
+		// Grows the ring buffer if necessary
+		if (this.queueSize == this.queue.length)
+		{
+			int[] newQueue = new int[this.queue.length * 2];
+			for (int i = 0; i < this.queueSize; i++)
+			{
+				newQueue[i] = this.queue[(this.queueStart + i) %
+						this.queue.length];
+			}
+			this.queue = newQueue;
+			this.queueStart = 0;
+		}
+
+		this.scheduled[connector] = true;
+		this.queue[(this.queueStart + this.queueSize) % this.queue.length] =
+				connector;
+		this.queueSize ++;
+	}
+
+	/**
+	 * Handles the queued input updates one delta cycle at a time until the
+	 * circuit settles or the turn's delta cycles run out.
+	 *
+	 * @return Did the circuit settle
+	 */
+	public boolean drain()
+	{
+		// The updates may schedule new updates but those are handled in
+		// this same loop
+		if (this.draining)
+			return false;
+
+		this.draining = true;
+
+		while (this.queueSize > 0 && this.deltaCyclesLeft > 0)
+		{
+			// Handles the inputs that were queued during the previous cycle
+			int cycleSize = this.queueSize;
+			for (int i = 0; i < cycleSize; i++)
+			{
+				this.updater.updateInput(poll());
+			}
+
+			this.deltaCyclesLeft --;
+		}
+
+		this.draining = false;
+
+		if (this.queueSize == 0)
+		{
+			// A settled circuit can use a full set of cycles on its next
+			// change
+			this.deltaCyclesLeft = this.deltaCycleLimit;
+			this.oscillating = false;
+			return true;
+		}
+
+		if (!this.oscillating)
+		{
+			this.oscillating = true;
+			System.err.println("The circuit didn't settle within " +
+					this.deltaCycleLimit + " delta cycles and is probably "
+					+ "oscillating. " + this.queueSize +
+					" input update(s) wait for the next turn.");
+		}
+
+		return false;
+	}
+
+	/**
+	 * Gives the scheduler a new set of delta cycles for a new turn
+	 */
+	void startTurn()
+	{
+		this.deltaCyclesLeft = this.deltaCycleLimit;
+	}
+
+	/**
+	 * Removes the next input from the queue without updating it
+	 *
+	 * @return The index of the input connector or -1 if the queue is empty
+	 */
+	int poll()
+	{
+		if (this.queueSize == 0)
+			return -1;
+
+		int connector = this.queue[this.queueStart];
+		this.queueStart = (this.queueStart + 1) % this.queue.length;
+		this.queueSize --;
+		this.scheduled[connector] = false;
+
+		return connector;
+	}
+
+	/**
+	 * Removes all the queued updates
+	 */
+	public void clear()
+	{
+		while (this.queueSize > 0)
+		{
+			this.scheduled[this.queue[this.queueStart]] = false;
+			this.queueStart = (this.queueStart + 1) % this.queue.length;
+			this.queueSize --;
+		}
+
+		this.deltaCyclesLeft = this.deltaCycleLimit;
+		this.oscillating = false;
+	}
+
+
+	// SUBCLASSES	-----------------------------------------------------
+
+	/**
+	 * InputUpdaters recalculate the input connectors queued in a scheduler
+	 */
+	static interface InputUpdater
+	{
+		/**
+		 * Recalculates the signal of an input connector
+		 *
+		 * @param connector The index of the input connector
+		 */
+		public void updateInput(int connector);
+	}
+}
@@ -0,0 +1,220 @@
+package uninamo_components;
+
+import java.util.Arrays;
+
+/**
+ * SignalStore holds a large amount of binary signals packed into longs, 64
+ * signals per word. Taking a snapshot, comparing against one or resetting
+ * the store only copies the words. The store doesn't grow on its own, its 
+ * capacity is set up front with ensureCapacity. Threads that need to change 
+ * the signals at the same time work on copies of their own, which are then 
+ * merged back into the store.
+ *
+ * @author Mikko Hilpinen
+ * @since 30.3.2014
+ * @see SignalCircuit
+ */
+public class SignalStore
+{
+	// ATTRIBUTES	-----------------------------------------------------
+
+	private long[] words;
+
+
+	// CONSTRUCTOR	-----------------------------------------------------
+
+	/**
+	 * Creates a new signalStore where all the signals are FALSE
+	 *
+	 * @param capacity How many signals the store can hold at first
+	 */
+	public SignalStore(int capacity)
+	{
+		// Initializes attributes
+		this.words = new long[getWordAmount(capacity)];
+	}
+
+
+	// GETTERS & SETTERS	---------------------------------------------
+
+	/**
+	 * @return How many signals the store can currently hold
+	 */
+	public int getCapacity()
+	{
+		return this.words.length * 64;
+	}
+
+	/**
+	 * @param index The index of the signal
+	 * @return The signal with the given index. Signals outside the store
+	 * are FALSE.
+	 */
+	public boolean get(int index)
+	{
+		int word = index >> 6;
+		if (index < 0 || word >= this.words.length)
+			return false;
+
+		return (this.words[word] & (1L << index)) != 0;
+	}
+
+	/**
+	 * Changes a signal in the store. The signal must fit into the store's 
+	 * capacity.
+	 *
+	 * @param index The index of the signal
+	 * @param signal The new signal
+	 */
+	public void set(int index, boolean signal)
+	{
+		int word = index >> 6;
+		if (index < 0 || word >= this.words.length)
+		{
+			System.err.println("The signalStore can't hold a signal with index "
+					+ index);
+			return;
+		}
+
+		if (signal)
+			this.words[word] |= 1L << index;
+		else
+			this.words[word] &= ~(1L << index);
+	}
+
+
+	// OTHER METHODS	-------------------------------------------------
+
+	/**
+	 * Makes sure the store can hold the given amount of signals. This
+	 * shouldn't be called while other threads are using the store.
+	 *
+	 * @param capacity How many signals the store should be able to hold
+	 */
+	public void ensureCapacity(int capacity)
+	{
+		int wordAmount = getWordAmount(capacity);
+		if (wordAmount > this.words.length)
+			this.words = Arrays.copyOf(this.words, Math.max(wordAmount,
+					this.words.length * 2));
+	}
+
+	/**
+	 * @return A copy of the store's current state
+	 */
+	public long[] snapshot()
+	{
+		return this.words.clone();
+	}
+
+	/**
+	 * Returns the store to a previously recorded state. Signals that are not
+	 * included in the snapshot become FALSE.
+	 *
+	 * @param snapshot A snapshot taken from a store
+	 */
+	public void reset(long[] snapshot)
+	{
+		ensureCapacity(snapshot.length * 64);
+
+		System.arraycopy(snapshot, 0, this.words, 0, snapshot.length);
+		Arrays.fill(this.words, snapshot.length, this.words.length, 0);
+	}
+
+	/**
+	 * Applies the changes another store has gone through since a snapshot. 
+	 * The changed signals are toggled in this store, so the changes of 
+	 * multiple stores can be merged as long as no two stores changed the 
+	 * same signal.
+	 *
+	 * @param changed A store that was reset to the snapshot and then changed
+	 * @param snapshot The snapshot the other store started from
+	 */
+	public void mergeChanges(SignalStore changed, long[] snapshot)
+	{
+		int wordAmount = Math.min(this.words.length, changed.words.length);
+		for (int i = 0; i < wordAmount; i++)
+		{
+			this.words[i] ^= changed.words[i] ^ getWord(snapshot, i);
+		}
+	}
+
+	/**
+	 * Makes all the signals FALSE
+	 */
+	public void clear()
+	{
+		Arrays.fill(this.words, 0);
+	}
+
+	/**
+	 * Compares the store to a snapshot
+	 *
+	 * @param snapshot A snapshot taken from a store
+	 * @return How many signals differ between the store and the snapshot
+	 */
+	public int countDifferences(long[] snapshot)
+	{
+		int differences = 0;
+		int wordAmount = Math.max(snapshot.length, this.words.length);
+
+		for (int i = 0; i < wordAmount; i++)
+		{
+			differences += Long.bitCount(getWord(i) ^ getWord(snapshot, i));
+		}
+
+		return differences;
+	}
+
+	/**
+	 * Finds the next signal that differs between the store and a snapshot
+	 *
+	 * @param snapshot A snapshot taken from a store
+	 * @param fromIndex The index where the search starts
+	 * @return The index of the next differing signal or -1 if there are no
+	 * more differences
+	 */
+	public int nextDifference(long[] snapshot, int fromIndex)
+	{
+		int wordAmount = Math.max(snapshot.length, this.words.length);
+		int word = Math.max(fromIndex, 0) >> 6;
+
+		if (word >= wordAmount)
+			return -1;
+
+		// The bits before fromIndex are ignored in the first word
+		long difference = (getWord(word) ^ getWord(snapshot, word)) &
+				(-1L << Math.max(fromIndex, 0));
+
+		while (true)
+		{
+			if (difference != 0)
+				return word * 64 + Long.numberOfTrailingZeros(difference);
+
+			word ++;
+			if (word >= wordAmount)
+				return -1;
+
+			difference = getWord(word) ^ getWord(snapshot, word);
+		}
+	}
+
+	private long getWord(int index)
+	{
+		if (index >= this.words.length)
+			return 0;
+		return this.words[index];
+	}
+
+	private static long getWord(long[] snapshot, int index)
+	{
+		if (index >= snapshot.length)
+			return 0;
+		return snapshot[index];
+	}
+
+	private static int getWordAmount(int capacity)
+	{
+		return Math.max(1, (capacity + 63) >> 6);
+	}
+}
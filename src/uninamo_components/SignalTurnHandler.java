@@ -0,0 +1,53 @@
+package uninamo_components;
+
+import uninamo_gameplaysupport.TurnHandler;
+
+/**
+ * SignalTurnHandler informs its objects about turn events like a normal 
+ * turnHandler, but it also starts a new turn in a signalCircuit. The signal 
+ * changes caused by the objects are handled together once all the objects 
+ * have been informed, which allows the separate parts of the circuit to be 
+ * handled in parallel. If the circuit is clocked, the objects read the 
+ * signals of the previous turn and the signals they send are applied 
+ * together at the end of the turn.
+ * 
+ * @author Mikko Hilpinen
+ * @since 29.3.2014
+ * @see SignalCircuit
+ */
+public class SignalTurnHandler extends TurnHandler
+{
+	// ATTRIBUTES	-----------------------------------------------------
+	
+	private SignalCircuit circuit;
+	
+	
+	// CONSTRUCTOR	-----------------------------------------------------
+	
+	/**
+	 * Creates a new signalTurnHandler
+	 * 
+	 * @param superHandler The TurnHandler that will inform the handler about 
+	 * turn events (optional)
+	 * @param circuit The circuit whose turns are handled
+	 */
+	public SignalTurnHandler(TurnHandler superHandler, SignalCircuit circuit)
+	{
+		super(superHandler);
+		
+		// Initializes attributes
+		this.circuit = circuit;
+	}
+	
+	
+	// IMPLEMENTED METHODS	---------------------------------------------
+	
+	@Override
+	public void onTurnEvent()
+	{
+		// The changes are propagated once all the objects have been informed
+		this.circuit.startTurn();
+		super.onTurnEvent();
+		this.circuit.endTurn();
+	}
+}
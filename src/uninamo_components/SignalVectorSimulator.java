@@ -0,0 +1,372 @@
+package uninamo_components;
+
+import java.util.Arrays;
+
+/**
+ * SignalVectorSimulator runs 64 independent simulations of a signalCircuit
+ * at once. Each signal is stored as a long where every bit is a separate
+ * scenario, so a gate calculates all of the scenarios with a single bitwise
+ * operation. Sequential gates are evaluated one scenario at a time with
+ * their transition tables and each scenario keeps a state of its own. The
+ * simulator doesn't change the circuit or its mirrors, which
+ * makes it suitable for verifying a circuit against a truth table.
+ *
+ * @author Mikko Hilpinen
+ * @since 27.3.2014
+ * @see SignalCircuit
+ * @see GateType
+ */
+public class SignalVectorSimulator
+{
+	// ATTRIBUTES	-----------------------------------------------------
+
+	private SignalCircuit circuit;
+	private long[] connectorVectors, cableVectors, sourceVectors,
+			cableSourceVectors, inputBuffer, outputBuffer;
+	private boolean[] isSource, isCableSource, gateQueued;
+	private int[] gateQueue, nextGateQueue, scenarioStates;
+	private int deltaCycleLimit;
+
+
+	// CONSTRUCTOR	-----------------------------------------------------
+
+	/**
+	 * Creates a new simulator for the given circuit. The circuit's wiring
+	 * shouldn't change while the simulator is being used.
+	 *
+	 * @param circuit The circuit that will be simulated
+	 * @param deltaCycleLimit How many delta cycles a simulation can take
+	 * before the circuit is considered oscillating
+	 */
+	public SignalVectorSimulator(SignalCircuit circuit, int deltaCycleLimit)
+	{
+		// Initializes attributes
+		this.circuit = circuit;
+		this.deltaCycleLimit = deltaCycleLimit;
+
+		circuit.compile();
+
+		int connectors = circuit.getConnectorCapacity();
+		int cables = circuit.getCableCapacity();
+		int gates = circuit.getGateCapacity();
+
+		this.connectorVectors = new long[connectors];
+		this.cableVectors = new long[cables];
+		this.sourceVectors = new long[connectors];
+		this.cableSourceVectors = new long[cables];
+		this.isSource = new boolean[connectors];
+		this.isCableSource = new boolean[cables];
+		this.gateQueued = new boolean[gates];
+		this.gateQueue = new int[gates];
+		this.nextGateQueue = new int[gates];
+		this.inputBuffer = new long[8];
+		this.outputBuffer = new long[8];
+		this.scenarioStates = new int[gates * 64];
+	}
+
+
+	// GETTERS & SETTERS	---------------------------------------------
+
+	/**
+	 * @param connector The index of a connector in the circuit
+	 * @return The signal vector the connector had at the end of the last
+	 * simulation
+	 */
+	public long getConnectorVector(int connector)
+	{
+		if (connector < 0 || connector >= this.connectorVectors.length)
+			return 0;
+		return this.connectorVectors[connector];
+	}
+
+	/**
+	 * @param connector The index of a connector in the circuit
+	 * @param scenario The index of the scenario [0, 63]
+	 * @return The signal the connector had in the given scenario during the
+	 * last simulation
+	 */
+	public boolean getConnectorSignal(int connector, int scenario)
+	{
+		return ((getConnectorVector(connector) >>> scenario) & 1L) != 0;
+	}
+
+	/**
+	 * Makes an output connector of an external gate send the given signals
+	 * during the simulations. External outputs that don't have a vector
+	 * send their current signal in every scenario.
+	 *
+	 * @param connector The index of the output connector
+	 * @param vector The signals the connector sends, one bit per scenario
+	 */
+	public void setSourceVector(int connector, long vector)
+	{
+		if (connector < 0 || connector >= this.sourceVectors.length)
+		{
+			System.err.println("The simulator doesn't have a connector with "
+					+ "index " + connector);
+			return;
+		}
+
+		this.isSource[connector] = true;
+		this.sourceVectors[connector] = vector;
+	}
+
+	/**
+	 * Makes a cable without a start connector (a test cable) send the
+	 * given signals during the simulations. Test cables that don't have a
+	 * vector send their current signal in every scenario.
+	 *
+	 * @param cable The index of the cable
+	 * @param vector The signals the cable sends, one bit per scenario
+	 */
+	public void setCableVector(int cable, long vector)
+	{
+		if (cable < 0 || cable >= this.cableSourceVectors.length)
+		{
+			System.err.println("The simulator doesn't have a cable with index "
+					+ cable);
+			return;
+		}
+
+		this.isCableSource[cable] = true;
+		this.cableSourceVectors[cable] = vector;
+	}
+
+
+	// OTHER METHODS	-------------------------------------------------
+
+	/**
+	 * Removes all the source vectors set to the simulator
+	 */
+	public void clearSources()
+	{
+		Arrays.fill(this.isSource, false);
+		Arrays.fill(this.isCableSource, false);
+	}
+
+	/**
+	 * Runs all 64 scenarios through the circuit. The signals start from the
+	 * circuit's current state, after which the source vectors are applied
+	 * and the gates are evaluated until the circuit settles.
+	 *
+	 * @return Did the circuit settle within the delta cycle limit
+	 */
+	public boolean simulate()
+	{
+		SignalCircuit circuit = this.circuit;
+		int[] fanOutStart = circuit.getFanOutStart();
+		int[] fanOutCables = circuit.getFanOutCables();
+
+		// Sets the external signals, other connectors start from their 
+		// current state
+		for (int connector = 0; connector < this.connectorVectors.length;
+				connector++)
+		{
+			this.connectorVectors[connector] = 0;
+			if (!circuit.containsConnector(connector))
+				continue;
+			if (this.isSource[connector])
+				this.connectorVectors[connector] = this.sourceVectors[connector];
+			else if (circuit.getConnectorSignal(connector))
+				this.connectorVectors[connector] = -1L;
+		}
+
+		for (int cable = 0; cable < this.cableVectors.length; cable++)
+		{
+			this.cableVectors[cable] = 0;
+			if (!circuit.containsCable(cable))
+				continue;
+
+			int start = circuit.getCableStart(cable);
+			if (start >= 0)
+				this.cableVectors[cable] = this.connectorVectors[start];
+			else if (this.isCableSource[cable])
+				this.cableVectors[cable] = this.cableSourceVectors[cable];
+			else if (circuit.getCableSignal(cable))
+				this.cableVectors[cable] = -1L;
+		}
+
+		// Calculates the inputs and queues every logic gate
+		int queueSize = 0;
+		for (int connector = 0; connector < this.connectorVectors.length;
+				connector++)
+		{
+			if (circuit.containsConnector(connector) &&
+					circuit.getConnectorGate(connector) >= 0)
+				this.connectorVectors[connector] = calculateInput(connector);
+		}
+		for (int gate = 0; gate < this.gateQueued.length; gate++)
+		{
+			this.gateQueued[gate] = circuit.containsGate(gate) &&
+					circuit.getGateType(gate) != GateType.EXTERNAL;
+			if (this.gateQueued[gate])
+				this.gateQueue[queueSize ++] = gate;
+
+			// Each scenario starts from the gate's current state
+			if (circuit.containsGate(gate))
+				Arrays.fill(this.scenarioStates, gate * 64, gate * 64 + 64,
+						circuit.getGateState(gate));
+		}
+
+		// Evaluates the queued gates one delta cycle at a time
+		int cycles = 0;
+		while (queueSize > 0)
+		{
+			if (cycles >= this.deltaCycleLimit)
+			{
+				for (int i = 0; i < queueSize; i++)
+				{
+					this.gateQueued[this.gateQueue[i]] = false;
+				}
+				return false;
+			}
+
+			int nextQueueSize = 0;
+			for (int i = 0; i < queueSize; i++)
+			{
+				int gate = this.gateQueue[i];
+				this.gateQueued[gate] = false;
+
+				evaluateGate(gate);
+
+				for (int o = 0; o < circuit.getGateOutputAmount(gate); o++)
+				{
+					long result = this.outputBuffer[o];
+					int output = circuit.getGateOutput(gate, o);
+					if (this.connectorVectors[output] == result)
+						continue;
+
+					this.connectorVectors[output] = result;
+
+					// Updates the inputs the output is connected to
+					for (int c = fanOutStart[output];
+							c < fanOutStart[output + 1]; c++)
+					{
+						int cable = fanOutCables[c];
+						this.cableVectors[cable] = result;
+
+						int end = circuit.getCableEnd(cable);
+						if (end < 0)
+							continue;
+
+						long input = calculateInput(end);
+						if (input == this.connectorVectors[end])
+							continue;
+
+						this.connectorVectors[end] = input;
+
+						int nextGate = circuit.getConnectorGate(end);
+						if (nextGate >= 0 && !this.gateQueued[nextGate] &&
+								circuit.getGateType(nextGate) !=
+								GateType.EXTERNAL)
+						{
+							this.gateQueued[nextGate] = true;
+							this.nextGateQueue[nextQueueSize ++] = nextGate;
+						}
+					}
+				}
+			}
+
+			// Swaps the queues
+			int[] temp = this.gateQueue;
+			this.gateQueue = this.nextGateQueue;
+			this.nextGateQueue = temp;
+			queueSize = nextQueueSize;
+			cycles ++;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Creates a vector that contains every combination of the given amount
+	 * of input signals. Giving each input of a circuit its own pattern runs
+	 * an exhaustive truth table of up to 6 inputs in a single simulation.
+	 * In scenario n, input i receives the i:th bit of n.
+	 *
+	 * @param input The index of the input [0, 5]
+	 * @return The pattern the input should receive
+	 */
+	public static long getExhaustivePattern(int input)
+	{
+		if (input < 0 || input > 5)
+		{
+			System.err.println("Exhaustive patterns are only available for "
+					+ "inputs 0-5");
+			return 0;
+		}
+
+		long pattern = 0;
+		for (int scenario = 0; scenario < 64; scenario++)
+		{
+			if (((scenario >>> input) & 1) != 0)
+				pattern |= 1L << scenario;
+		}
+
+		return pattern;
+	}
+
+	private long calculateInput(int connector)
+	{
+		// Inputs are wired-OR of their cables
+		int[] fanInStart = this.circuit.getFanInStart();
+		int[] fanInCables = this.circuit.getFanInCables();
+
+		long input = 0;
+		for (int i = fanInStart[connector]; i < fanInStart[connector + 1]; i++)
+		{
+			input |= this.cableVectors[fanInCables[i]];
+		}
+
+		return input;
+	}
+
+	private void evaluateGate(int gate)
+	{
+		SignalCircuit circuit = this.circuit;
+		int inputAmount = circuit.getGateInputAmount(gate);
+		int outputAmount = circuit.getGateOutputAmount(gate);
+		if (this.inputBuffer.length < inputAmount)
+			this.inputBuffer = new long[inputAmount];
+		if (this.outputBuffer.length < outputAmount)
+			this.outputBuffer = new long[outputAmount];
+
+		for (int i = 0; i < inputAmount; i++)
+		{
+			this.inputBuffer[i] =
+					this.connectorVectors[circuit.getGateInput(gate, i)];
+		}
+
+		GateType type = circuit.getGateType(gate);
+		int[] table = circuit.getGateTable(gate);
+
+		if (!type.isSequential() || table == null)
+		{
+			type.evaluate(this.inputBuffer, inputAmount, this.outputBuffer,
+					outputAmount);
+			return;
+		}
+
+		// Sequential gates go through the scenarios one by one
+		Arrays.fill(this.outputBuffer, 0, outputAmount, 0);
+		for (int scenario = 0; scenario < 64; scenario++)
+		{
+			int index = this.scenarioStates[gate * 64 + scenario] << inputAmount;
+			for (int i = 0; i < inputAmount; i++)
+			{
+				if (((this.inputBuffer[i] >>> scenario) & 1) != 0)
+					index |= 1 << i;
+			}
+
+			int entry = table[index];
+			this.scenarioStates[gate * 64 + scenario] = 
+					entry >>> GateType.STATESHIFT;
+
+			for (int o = 0; o < outputAmount; o++)
+			{
+				if (((entry >>> o) & 1) != 0)
+					this.outputBuffer[o] |= 1L << scenario;
+			}
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package uninamo_gameplaysupport;
+
+/**
+ * CollisionLayers are the categories of objects in the collision checking.
+ * Each layer has a bit of its own so that the layers an object interacts
+ * with can be presented as a single mask.
+ *
+ * @author Mikko Hilpinen
+ * @since 3.4.2014
+ * @see CollisionLayerMatrix
+ */
+public enum CollisionLayer
+{
+	/**
+	 * Obstacles are the boxes and other objects the user is trying to move
+	 */
+	OBSTACLE,
+	/**
+	 * Machines are the conveyor belts and other machinery
+	 */
+	MACHINE,
+	/**
+	 * Walls are the static borders of the area
+	 */
+	WALL,
+	/**
+	 * Collectors are the obstacleCollectors that fill up with obstacles
+	 */
+	COLLECTOR;
+	
+	
+	// METHODS	---------------------------------------------------------
+	
+	/**
+	 * @return The bit that represents this layer in a layer mask
+	 */
+	public int getBit()
+	{
+		return 1 << ordinal();
+	}
+}
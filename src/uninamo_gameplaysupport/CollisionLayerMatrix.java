@@ -0,0 +1,99 @@
+package uninamo_gameplaysupport;
+
+/**
+ * CollisionLayerMatrix tells which collisionLayers interact with each other.
+ * The interactions are symmetric and stored as a mask for each layer, so
+ * whether two layers can collide is found with a single AND operation.
+ *
+ * @author Mikko Hilpinen
+ * @since 3.4.2014
+ * @see CollisionLayer
+ */
+public class CollisionLayerMatrix
+{
+	// ATTRIBUTES	-----------------------------------------------------
+	
+	private int[] masks;
+	
+	
+	// CONSTRUCTOR	-----------------------------------------------------
+	
+	/**
+	 * Creates a new matrix with the default interactions
+	 *
+	 * @see #reset()
+	 */
+	public CollisionLayerMatrix()
+	{
+		// Initializes attributes
+		this.masks = new int[CollisionLayer.values().length];
+		
+		reset();
+	}
+	
+	
+	// GETTERS & SETTERS	---------------------------------------------
+	
+	/**
+	 * @param layer The layer whose mask is returned
+	 * @return The bits of the layers the given layer interacts with
+	 */
+	public int getMask(CollisionLayer layer)
+	{
+		return this.masks[layer.ordinal()];
+	}
+	
+	
+	// OTHER METHODS	-------------------------------------------------
+	
+	/**
+	 * Returns the matrix to the default interactions where obstacles
+	 * interact with each other and with every other layer. The other layers
+	 * don't interact with each other.
+	 */
+	public void reset()
+	{
+		for (int i = 0; i < this.masks.length; i++)
+		{
+			this.masks[i] = 0;
+		}
+		
+		for (CollisionLayer layer : CollisionLayer.values())
+		{
+			setInteraction(CollisionLayer.OBSTACLE, layer, true);
+		}
+	}
+	
+	/**
+	 * Changes whether the two layers interact with each other
+	 *
+	 * @param first The first layer
+	 * @param second The second layer
+	 * @param interacts Should the objects in the layers collide with each
+	 * other
+	 */
+	public void setInteraction(CollisionLayer first, CollisionLayer second,
+			boolean interacts)
+	{
+		if (interacts)
+		{
+			this.masks[first.ordinal()] |= second.getBit();
+			this.masks[second.ordinal()] |= first.getBit();
+		}
+		else
+		{
+			this.masks[first.ordinal()] &= ~second.getBit();
+			this.masks[second.ordinal()] &= ~first.getBit();
+		}
+	}
+	
+	/**
+	 * @param first The first layer
+	 * @param second The second layer
+	 * @return Do the objects in the two layers collide with each other
+	 */
+	public boolean interact(CollisionLayer first, CollisionLayer second)
+	{
+		return (this.masks[first.ordinal()] & second.getBit()) != 0;
+	}
+}
@@ -0,0 +1,597 @@
+package uninamo_gameplaysupport;
+
+import genesis_logic.Actor;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import omega_gameplay.Collidable;
+import omega_gameplay.CollisionListener;
+import omega_gameplay.CollisionType;
+import omega_graphic.DimensionalDrawnObject;
+import omega_graphic.DrawnObject;
+import omega_world.Area;
+
+/**
+ * CollisionSweeper checks the collisions in an area using a sweep-and-prune
+ * broad phase. The objects' axis-aligned bounds are kept sorted by their
+ * left edge and only the listeners and collidables whose bounds overlap are
+ * tested against each other. The narrow phase is the same as before: the
+ * listener's collision points are tested with the collidable and the listener
+ * is informed through onCollision. Collidables without bounds (invisible
+ * walls, for example) are tested against every listener. Pairs whose
+ * collisionLayers don't interact are rejected before the collision points
+ * are tested. Continuous listeners are swept along the path they moved 
+ * during the step, so that fast objects don't pass through thin collidables. 
+ * Such a listener is moved back to the point where it first hit the 
+ * collidable. The sweeper can also be asked which listeners touch an 
+ * object, which is used for finding the obstacles resting on each other.<br>
+ * Objects that are handled by a sweeper shouldn't support any listener
+ * classes in the area's collisionHandler, otherwise they are checked twice.
+ *
+ * @author Mikko Hilpinen
+ * @since 3.4.2014
+ */
+public class CollisionSweeper implements Actor
+{
+	// ATTRIBUTES	-----------------------------------------------------
+	
+	private HashMap<Object, Entry> entries;
+	private ArrayList<Entry> sortedEntries, unboundedEntries, activeEntries;
+	private CollisionLayerMatrix layerMatrix;
+	private boolean active, dead;
+	
+	private static HashMap<Area, CollisionSweeper> sweepers =
+			new HashMap<Area, CollisionSweeper>();
+	
+	/**
+	 * The supported listener classes a collidable should return to the
+	 * area's collisionHandler when its collisions are checked by a sweeper
+	 */
+	public static final Class<?>[] NOLISTENERCLASSES = new Class<?>[0];
+	
+	private static final double SWEEPSTEPLENGTH = 4;
+	private static final int SWEEPREFINEMENTS = 4;
+	// How far apart the bounds may be while the objects still touch
+	private static final double TOUCHMARGIN = 2;
+	
+	
+	// CONSTRUCTOR	-----------------------------------------------------
+	
+	/**
+	 * Creates a new sweeper. Usually the area's own sweeper should be used 
+	 * instead.
+	 * 
+	 * @see #getSweeper(Area)
+	 */
+	public CollisionSweeper()
+	{
+		// Initializes attributes
+		this.entries = new HashMap<Object, Entry>();
+		this.sortedEntries = new ArrayList<Entry>();
+		this.unboundedEntries = new ArrayList<Entry>();
+		this.activeEntries = new ArrayList<Entry>();
+		this.layerMatrix = new CollisionLayerMatrix();
+		this.active = true;
+		this.dead = false;
+	}
+	
+	
+	// IMPLEMENTED METHODS	---------------------------------------------
+	
+	@Override
+	public boolean isActive()
+	{
+		return this.active;
+	}
+	
+	@Override
+	public void activate()
+	{
+		this.active = true;
+	}
+	
+	@Override
+	public void inactivate()
+	{
+		this.active = false;
+	}
+	
+	@Override
+	public boolean isDead()
+	{
+		return this.dead;
+	}
+	
+	@Override
+	public void kill()
+	{
+		this.dead = true;
+		this.entries.clear();
+		this.sortedEntries.clear();
+		this.unboundedEntries.clear();
+		this.activeEntries.clear();
+	}
+	
+	@Override
+	public void act(double steps)
+	{
+		updateEntries();
+		
+		// Sweeps through the entries from left to right. The active entries
+		// are the ones whose x-range still reaches the current entry
+		this.activeEntries.clear();
+		for (int i = 0; i < this.sortedEntries.size(); i++)
+		{
+			Entry entry = this.sortedEntries.get(i);
+			if (entry.isEmpty())
+				continue;
+			
+			for (int j = this.activeEntries.size() - 1; j >= 0; j--)
+			{
+				Entry other = this.activeEntries.get(j);
+				if (other.maxX < entry.minX)
+					this.activeEntries.remove(j);
+				else if (other.minY <= entry.maxY && entry.minY <= other.maxY)
+				{
+					checkCollision(entry, other, steps);
+					checkCollision(other, entry, steps);
+				}
+			}
+			
+			this.activeEntries.add(entry);
+			
+			// Unbounded objects may collide with anything
+			for (int j = 0; j < this.unboundedEntries.size(); j++)
+			{
+				Entry other = this.unboundedEntries.get(j);
+				checkCollision(entry, other, steps);
+				checkCollision(other, entry, steps);
+			}
+		}
+	}
+	
+	
+	// GETTERS & SETTERS	---------------------------------------------
+	
+	/**
+	 * @return The matrix that tells which collisionLayers interact in the 
+	 * area. Changes to the matrix affect the objects already in the sweeper.
+	 */
+	public CollisionLayerMatrix getLayerMatrix()
+	{
+		return this.layerMatrix;
+	}
+	
+	
+	// OTHER METHODS	-------------------------------------------------
+	
+	/**
+	 * Returns the sweeper used in the given area. A new sweeper is created
+	 * if the area doesn't have one yet. The sweeper checks the collisions 
+	 * after each step of the area's physicsStepper.
+	 *
+	 * @param area The area the sweeper works in
+	 * @return The sweeper that checks the collisions in the area
+	 */
+	public static CollisionSweeper getSweeper(Area area)
+	{
+		CollisionSweeper sweeper = sweepers.get(area);
+		if (sweeper == null || sweeper.isDead())
+		{
+			sweeper = new CollisionSweeper();
+			sweepers.put(area, sweeper);
+			PhysicsStepper.getStepper(area).setCollisionSweeper(sweeper);
+		}
+		
+		return sweeper;
+	}
+	
+	/**
+	 * Adds a new listener to the sweeper. The listener will be informed about
+	 * collisions with the collidables its collision points overlap.
+	 *
+	 * @param listener The listener that is added
+	 * @param layer The collisionLayer the listener belongs to
+	 */
+	public void addCollisionListener(CollisionListener listener, 
+			CollisionLayer layer)
+	{
+		addCollisionListener(listener, layer, false);
+	}
+	
+	/**
+	 * Adds a new listener to the sweeper. The listener will be informed about
+	 * collisions with the collidables its collision points overlap.
+	 *
+	 * @param listener The listener that is added
+	 * @param layer The collisionLayer the listener belongs to
+	 * @param continuous Should the listener be swept along its path so that 
+	 * it can't pass through collidables during long steps. Only drawnObjects 
+	 * can be continuous. The collidables that are continuous themselves are 
+	 * checked normally.
+	 */
+	public void addCollisionListener(CollisionListener listener, 
+			CollisionLayer layer, boolean continuous)
+	{
+		Entry entry = getEntry(listener);
+		entry.listener = listener;
+		entry.continuous = continuous && listener instanceof DrawnObject;
+		entry.setLayer(layer);
+	}
+	
+	/**
+	 * Adds a new collidable to the sweeper. Collidables that are not
+	 * dimensionalDrawnObjects have no bounds and are checked against every
+	 * other object.
+	 *
+	 * @param collidable The collidable that is added
+	 * @param layer The collisionLayer the collidable belongs to
+	 */
+	public void addCollidable(Collidable collidable, CollisionLayer layer)
+	{
+		Entry entry = getEntry(collidable);
+		entry.collidable = collidable;
+		entry.setLayer(layer);
+		
+		if (!(collidable instanceof DimensionalDrawnObject) &&
+				!this.unboundedEntries.contains(entry))
+		{
+			this.sortedEntries.remove(entry);
+			this.unboundedEntries.add(entry);
+		}
+	}
+	
+	/**
+	 * Finds the listeners whose bounds touch the given object's bounds. The 
+	 * bounds are the ones used in the last collision check, so a killed 
+	 * object can still be searched for until the next check.
+	 *
+	 * @param o The listener or collidable whose neighbours are searched
+	 * @return The listeners whose bounds touch the object's bounds. The list 
+	 * is empty if the object isn't in the sweeper or has no bounds yet.
+	 */
+	public ArrayList<CollisionListener> getListenersTouching(Object o)
+	{
+		ArrayList<CollisionListener> touching = 
+				new ArrayList<CollisionListener>();
+		Entry entry = this.entries.get(o);
+		if (entry == null || entry.isEmpty())
+			return touching;
+		
+		// The entries are sorted by their left edge so the search ends at 
+		// the first entry that starts right of the object
+		for (int i = 0; i < this.sortedEntries.size(); i++)
+		{
+			Entry other = this.sortedEntries.get(i);
+			if (other.minX > entry.maxX + TOUCHMARGIN)
+				break;
+			
+			if (other != entry && other.listener != null && !other.isEmpty() 
+					&& !other.isDead() && other.touches(entry, TOUCHMARGIN))
+				touching.add(other.listener);
+		}
+		
+		return touching;
+	}
+	
+	private Entry getEntry(Object o)
+	{
+		Entry entry = this.entries.get(o);
+		if (entry == null)
+		{
+			entry = new Entry(o);
+			this.entries.put(o, entry);
+			this.sortedEntries.add(entry);
+		}
+		
+		return entry;
+	}
+	
+	private void updateEntries()
+	{
+		// Removes the dead objects
+		for (int i = this.sortedEntries.size() - 1; i >= 0; i--)
+		{
+			Entry entry = this.sortedEntries.get(i);
+			if (entry.isDead())
+			{
+				this.sortedEntries.remove(i);
+				this.entries.remove(entry.object);
+			}
+			else
+				entry.updateBounds();
+		}
+		for (int i = this.unboundedEntries.size() - 1; i >= 0; i--)
+		{
+			Entry entry = this.unboundedEntries.get(i);
+			if (entry.isDead())
+			{
+				this.unboundedEntries.remove(i);
+				this.entries.remove(entry.object);
+			}
+		}
+		
+		// Sorts the entries by their left edge. Since the objects move only
+		// a little between the steps, insertion sort is nearly linear here
+		for (int i = 1; i < this.sortedEntries.size(); i++)
+		{
+			Entry entry = this.sortedEntries.get(i);
+			int j = i - 1;
+			while (j >= 0 && this.sortedEntries.get(j).minX > entry.minX)
+			{
+				this.sortedEntries.set(j + 1, this.sortedEntries.get(j));
+				j --;
+			}
+			this.sortedEntries.set(j + 1, entry);
+		}
+	}
+	
+	// Checks if the first entry's listener collides with the second entry's
+	// collidable and informs the listener
+	private void checkCollision(Entry listenerEntry, Entry collidableEntry, 
+			double steps)
+	{
+		CollisionListener listener = listenerEntry.listener;
+		Collidable collidable = collidableEntry.collidable;
+		if (listener == null || collidable == null || 
+				listenerEntry == collidableEntry)
+			return;
+		
+		// Layers that never interact are skipped right away
+		if ((this.layerMatrix.getMask(listenerEntry.layer) & 
+				collidableEntry.category) == 0)
+			return;
+		
+		if (!listener.isActive() || !collidable.isSolid())
+			return;
+		
+		ArrayList<Point2D.Double> collidedPoints =
+				new ArrayList<Point2D.Double>();
+		Point2D.Double[] points = listener.getCollisionPoints();
+		if (points == null)
+			return;
+		
+		if (listenerEntry.continuous && !collidableEntry.continuous)
+			points = sweep(listenerEntry, collidableEntry, points);
+		
+		for (int i = 0; i < points.length; i++)
+		{
+			if (collidableEntry.contains(points[i]) &&
+					collidable.pointCollides(points[i]))
+				collidedPoints.add(points[i]);
+		}
+		
+		if (!collidedPoints.isEmpty())
+			listener.onCollision(collidedPoints, collidable, steps);
+	}
+	
+	
+	// Moves the listener back to where it first hit the collidable (if it 
+	// did) and returns the new collision points
+	private static Point2D.Double[] sweep(Entry listenerEntry, 
+			Entry collidableEntry, Point2D.Double[] points)
+	{
+		double dx = listenerEntry.moveX;
+		double dy = listenerEntry.moveY;
+		double length = Math.sqrt(dx * dx + dy * dy);
+		
+		// Short moves are handled well enough by the normal check. Neither 
+		// is anything done if the points collided before the move
+		if (length <= SWEEPSTEPLENGTH || 
+				collidableEntry.collides(points, -dx, -dy))
+			return points;
+		
+		// Finds the first position along the path where the points collide
+		int samples = (int) Math.ceil(length / SWEEPSTEPLENGTH);
+		double free = 0, hit = -1;
+		for (int i = 1; i < samples; i++)
+		{
+			double t = (double) i / samples;
+			if (collidableEntry.collides(points, (t - 1) * dx, (t - 1) * dy))
+			{
+				hit = t;
+				break;
+			}
+			free = t;
+		}
+		
+		// If the points only collide at the end (or not at all), the 
+		// listener hasn't passed through anything
+		if (hit < 0)
+			return points;
+		
+		// Narrows down the first contact
+		for (int i = 0; i < SWEEPREFINEMENTS; i++)
+		{
+			double t = (free + hit) / 2;
+			if (collidableEntry.collides(points, (t - 1) * dx, (t - 1) * dy))
+				hit = t;
+			else
+				free = t;
+		}
+		
+		// Moves the listener back to the contact. The rest of the step's 
+		// checks use the shortened path
+		((DrawnObject) listenerEntry.listener).addPosition((hit - 1) * dx, 
+				(hit - 1) * dy);
+		listenerEntry.updateSweptBounds();
+		
+		return listenerEntry.listener.getCollisionPoints();
+	}
+	
+	
+	// SUBCLASSES	-----------------------------------------------------
+	
+	// Entry holds the bounds of a listener and / or a collidable
+	private static class Entry
+	{
+		// ATTRIBUTES	-------------------------------------------------
+		
+		private Object object;
+		private CollisionListener listener;
+		private Collidable collidable;
+		private CollisionLayer layer;
+		private int category;
+		private double minX, minY, maxX, maxY, moveX, moveY;
+		private double currentMinX, currentMinY, currentMaxX, currentMaxY;
+		private double lastMinX, lastMinY, lastMaxX, lastMaxY;
+		private boolean bounded, wasBounded, continuous;
+		
+		
+		// CONSTRUCTOR	-------------------------------------------------
+		
+		public Entry(Object object)
+		{
+			// Initializes attributes
+			this.object = object;
+			this.listener = null;
+			this.collidable = null;
+			this.layer = null;
+			this.category = 0;
+			this.bounded = false;
+			this.wasBounded = false;
+			this.continuous = false;
+		}
+		
+		
+		// OTHER METHODS	---------------------------------------------
+		
+		private boolean isDead()
+		{
+			if (this.listener != null)
+				return this.listener.isDead();
+			return this.collidable == null || this.collidable.isDead();
+		}
+		
+		private boolean isEmpty()
+		{
+			return !this.bounded;
+		}
+		
+		private boolean contains(Point2D.Double point)
+		{
+			// Collidables without bounds can contain any point
+			if (!(this.collidable instanceof DimensionalDrawnObject))
+				return true;
+			
+			return point.getX() >= this.minX && point.getX() <= this.maxX &&
+					point.getY() >= this.minY && point.getY() <= this.maxY;
+		}
+		
+		// Checks if any of the points would collide with the collidable if 
+		// they were translated by the given amount
+		private boolean collides(Point2D.Double[] points, double translationX, 
+				double translationY)
+		{
+			Point2D.Double p = new Point2D.Double();
+			for (int i = 0; i < points.length; i++)
+			{
+				p.setLocation(points[i].getX() + translationX, 
+						points[i].getY() + translationY);
+				if (contains(p) && this.collidable.pointCollides(p))
+					return true;
+			}
+			
+			return false;
+		}
+		
+		private boolean touches(Entry other, double margin)
+		{
+			return this.minX <= other.maxX + margin && 
+					other.minX <= this.maxX + margin && 
+					this.minY <= other.maxY + margin && 
+					other.minY <= this.maxY + margin;
+		}
+		
+		private void setLayer(CollisionLayer layer)
+		{
+			this.layer = layer;
+			this.category = layer.getBit();
+		}
+		
+		private void updateBounds()
+		{
+			// The bounds at the end of the last step are where this step's 
+			// path starts
+			this.wasBounded = this.bounded;
+			this.lastMinX = this.currentMinX;
+			this.lastMinY = this.currentMinY;
+			this.lastMaxX = this.currentMaxX;
+			this.lastMaxY = this.currentMaxY;
+			
+			updateSweptBounds();
+		}
+		
+		// Updates the bounds from the object's current position. The path 
+		// from the last step is kept
+		private void updateSweptBounds()
+		{
+			this.currentMinX = Double.MAX_VALUE;
+			this.currentMinY = Double.MAX_VALUE;
+			this.currentMaxX = -Double.MAX_VALUE;
+			this.currentMaxY = -Double.MAX_VALUE;
+			this.bounded = false;
+			
+			// Listeners are bound by their collision points
+			if (this.listener != null)
+				include(this.listener.getCollisionPoints(), 0);
+			
+			// Collidables are bound by their transformed corners. Circles may
+			// reach a radius over the corner points
+			if (this.collidable instanceof DimensionalDrawnObject)
+			{
+				DimensionalDrawnObject o = (DimensionalDrawnObject) this.collidable;
+				double margin = 0;
+				if (o.getCollisionType() == CollisionType.CIRCLE)
+					margin = o.getRadius();
+				
+				include(o.transformMultipleRelativePoints(new Point2D.Double[] {
+						new Point2D.Double(0, 0),
+						new Point2D.Double(o.getWidth(), 0),
+						new Point2D.Double(0, o.getHeight()),
+						new Point2D.Double(o.getWidth(), o.getHeight())}),
+						margin);
+			}
+			
+			this.minX = this.currentMinX;
+			this.minY = this.currentMinY;
+			this.maxX = this.currentMaxX;
+			this.maxY = this.currentMaxY;
+			this.moveX = 0;
+			this.moveY = 0;
+			
+			// Continuous entries cover the whole path they moved during the 
+			// step
+			if (this.continuous && this.wasBounded && this.bounded)
+			{
+				this.moveX = this.currentMinX - this.lastMinX;
+				this.moveY = this.currentMinY - this.lastMinY;
+				this.minX = Math.min(this.minX, this.lastMinX);
+				this.minY = Math.min(this.minY, this.lastMinY);
+				this.maxX = Math.max(this.maxX, this.lastMaxX);
+				this.maxY = Math.max(this.maxY, this.lastMaxY);
+			}
+		}
+		
+		private void include(Point2D.Double[] points, double margin)
+		{
+			if (points == null)
+				return;
+			
+			for (int i = 0; i < points.length; i++)
+			{
+				this.currentMinX = Math.min(this.currentMinX, 
+						points[i].getX() - margin);
+				this.currentMinY = Math.min(this.currentMinY, 
+						points[i].getY() - margin);
+				this.currentMaxX = Math.max(this.currentMaxX, 
+						points[i].getX() + margin);
+				this.currentMaxY = Math.max(this.currentMaxY, 
+						points[i].getY() + margin);
+				this.bounded = true;
+			}
+		}
+	}
+}
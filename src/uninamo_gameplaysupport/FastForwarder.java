@@ -0,0 +1,148 @@
+package uninamo_gameplaysupport;
+
+import genesis_logic.Actor;
+import genesis_logic.ActorHandler;
+import uninamo_main.GameSettings;
+
+/**
+ * FastForwarder runs a test faster than real time. The forwarder gives the 
+ * turns to the physicsStepper that times them, and the stepper runs them in 
+ * large batches as part of its normal act calls, so turns, conveyor belts 
+ * and box physics advance as fast as the CPU allows. Since the physics are 
+ * still run in fixed steps, a fast-forwarded test ends the same way as a 
+ * normal one. Only the state at the end of each frame is drawn. Once all 
+ * the turns have been run, the forwarder ends the test.
+ *
+ * @author Mikko Hilpinen
+ * @since 1.4.2014
+ */
+public class FastForwarder implements Actor, TestListener
+{
+	// ATTRIBUTES	------------------------------------------------------
+	
+	private PhysicsStepper stepper;
+	private TestHandler testHandler;
+	private boolean active, dead, forwarding;
+	
+	
+	// CONSTRUCTOR	------------------------------------------------------
+	
+	/**
+	 * Creates a new fastForwarder
+	 *
+	 * @param stepHandler The actorHandler that informs the forwarder about
+	 * frames
+	 * @param testHandler The testHandler that informs the forwarder about
+	 * test events. The handler will also use the forwarder for fast-forward
+	 * tests and is informed when they end.
+	 * @param stepper The physicsStepper that times the turns
+	 */
+	public FastForwarder(ActorHandler stepHandler, TestHandler testHandler,
+			PhysicsStepper stepper)
+	{
+		// Initializes attributes
+		this.stepper = stepper;
+		this.testHandler = testHandler;
+		this.active = true;
+		this.dead = false;
+		this.forwarding = false;
+		
+		// Adds the object to the handler(s)
+		if (stepHandler != null)
+			stepHandler.addActor(this);
+		if (testHandler != null)
+		{
+			testHandler.addTestable(this);
+			testHandler.setFastForwarder(this);
+		}
+	}
+	
+	
+	// IMPLEMENTED METHODS	---------------------------------------------
+	
+	@Override
+	public boolean isActive()
+	{
+		return this.active;
+	}
+	
+	@Override
+	public void activate()
+	{
+		this.active = true;
+	}
+	
+	@Override
+	public void inactivate()
+	{
+		this.active = false;
+	}
+	
+	@Override
+	public boolean isDead()
+	{
+		return this.dead;
+	}
+	
+	@Override
+	public void kill()
+	{
+		this.dead = true;
+		this.forwarding = false;
+	}
+	
+	@Override
+	public void act(double steps)
+	{
+		// Ends the test once the stepper has run all the turns
+		if (!this.forwarding || this.stepper.isFastForwarding())
+			return;
+		
+		this.forwarding = false;
+		if (this.testHandler != null)
+			this.testHandler.onTestEnd();
+	}
+	
+	@Override
+	public void onTestStart()
+	{
+		// Does nothing
+	}
+	
+	@Override
+	public void onTestEnd()
+	{
+		// Stops the fast-forward when the test ends
+		this.forwarding = false;
+		this.stepper.stopFastForward();
+	}
+	
+	
+	// GETTERS & SETTERS	---------------------------------------------
+	
+	/**
+	 * @return Is the forwarder currently fast-forwarding a test
+	 */
+	public boolean isFastForwarding()
+	{
+		return this.forwarding;
+	}
+	
+	
+	// OTHER METHODS	-------------------------------------------------
+	
+	/**
+	 * Fast-forwards the given amount of turns. The turns are run over the
+	 * next few frames, after which the test ends.
+	 *
+	 * @param turns How many turns are fast-forwarded
+	 */
+	public void fastForward(int turns)
+	{
+		if (turns <= 0)
+			return;
+		
+		this.stepper.fastForward(turns * GameSettings.turnDuration);
+		this.forwarding = true;
+	}
+}
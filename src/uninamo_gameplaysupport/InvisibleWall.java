@@ -63,7 +63,8 @@ public class InvisibleWall extends GameObject implements Wall, RoomListener
 			this.xForceModifier = 0;
 		
 		// Adds the object to the handler(s)
-		area.getCollisionHandler().getCollidableHandler().addCollidable(this);
+		CollisionSweeper.getSweeper(area).addCollidable(this, 
+				CollisionLayer.WALL);
 	}
 	
 	
@@ -0,0 +1,486 @@
+package uninamo_gameplaysupport;
+
+import genesis_logic.AdvancedMouseListener;
+import genesis_logic.MouseListenerHandler;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+
+import omega_graphic.DimensionalDrawnObject;
+import omega_graphic.TransformationListener;
+import omega_world.Area;
+import omega_world.Room;
+import omega_world.RoomListener;
+
+/**
+ * MouseDispatcher informs a large amount of mouse listeners about mouse
+ * events without going through all of them. Listeners that listen to local
+ * events are placed in a uniform grid based on their bounding boxes and only
+ * the listeners in the mouse's cell are checked. Listeners that are already 
+ * kept in a mouseListenerIndex (cables, for example) are looked up from the 
+ * index instead. Listeners that are interested in global events (a dragged 
+ * cable, for example) are kept in a separate list and are always informed. 
+ * Buttons add themselves to the area's mouseHandler, so they are moved under 
+ * the dispatcher after they have been created. There's one dispatcher per area, informed by the area's mouseHandler. The 
+ * dead listeners are cleared each time a room starts or ends.
+ *
+ * @author Mikko Hilpinen
+ * @since 3.4.2014
+ */
+public class MouseDispatcher extends MouseListenerHandler implements 
+		RoomListener
+{
+	// ATTRIBUTES	------------------------------------------------------
+	
+	private HashMap<Long, ArrayList<AdvancedMouseListener>> grid;
+	private HashMap<AdvancedMouseListener, long[]> listenerCells;
+	private ArrayList<AdvancedMouseListener> globalListeners,
+			unboundedListeners;
+	private HashSet<AdvancedMouseListener> hoveredListeners;
+	private ArrayList<MouseListenerIndex> indices;
+	private MouseListenerHandler areaHandler;
+	
+	private static HashMap<Area, MouseDispatcher> dispatchers =
+			new HashMap<Area, MouseDispatcher>();
+	private static final int CELLSIZE = 64;
+	// How far the collision shapes may reach over the bounding boxes
+	private static final int MARGIN = 8;
+	
+	
+	// CONSTRUCTOR	------------------------------------------------------
+	
+	private MouseDispatcher(Area area)
+	{
+		super(false, null, area.getMouseHandler());
+		
+		// Initializes attributes
+		this.grid = new HashMap<Long, ArrayList<AdvancedMouseListener>>();
+		this.listenerCells = new HashMap<AdvancedMouseListener, long[]>();
+		this.globalListeners = new ArrayList<AdvancedMouseListener>();
+		this.unboundedListeners = new ArrayList<AdvancedMouseListener>();
+		this.hoveredListeners = new HashSet<AdvancedMouseListener>();
+		this.indices = new ArrayList<MouseListenerIndex>();
+		this.areaHandler = area.getMouseHandler();
+		
+		// Adds the object to the handler(s)
+		area.addRoomListener(this);
+	}
+	
+	
+	// IMPLEMENTED METHODS	---------------------------------------------
+	
+	@Override
+	public void addMouseListener(AdvancedMouseListener l)
+	{
+		// Listeners that have a size are placed in the grid and kept there as
+		// they move
+		if (l instanceof DimensionalDrawnObject)
+		{
+			DimensionalDrawnObject o = (DimensionalDrawnObject) l;
+			o.getTransformationListenerHandler().addListener(
+					new BoundsTracker(l, o));
+			updateBounds(l, o);
+		}
+		else
+			this.unboundedListeners.add(l);
+		
+		updateScale(l);
+	}
+	
+	@Override
+	public void removeMouseListener(AdvancedMouseListener l)
+	{
+		removeFromGrid(l);
+		this.unboundedListeners.remove(l);
+		this.globalListeners.remove(l);
+		this.hoveredListeners.remove(l);
+	}
+	
+	@Override
+	public void onMouseButtonEvent(MouseButton button,
+			MouseButtonEventType eventType, Point2D.Double mousePosition,
+			double eventStepTime)
+	{
+		// Global listeners are always informed, local ones only if the mouse
+		// is over them
+		for (AdvancedMouseListener l : getCandidates(mousePosition))
+		{
+			if (!isInformed(l))
+				continue;
+			
+			MouseButtonEventScale scale = l.getCurrentButtonScaleOfInterest();
+			if (scale == MouseButtonEventScale.GLOBAL ||
+					(scale == MouseButtonEventScale.LOCAL &&
+					l.listensPosition(mousePosition)))
+				l.onMouseButtonEvent(button, eventType, mousePosition,
+						eventStepTime);
+			
+			// The listener may have started or stopped a drag
+			updateScale(l);
+		}
+	}
+	
+	@Override
+	public void onMouseMove(Point2D.Double newMousePosition)
+	{
+		ArrayList<AdvancedMouseListener> candidates =
+				getCandidates(newMousePosition);
+		
+		for (AdvancedMouseListener l : candidates)
+		{
+			if (!isInformed(l))
+				continue;
+			
+			l.onMouseMove(newMousePosition);
+			
+			// Informs about entering and staying over the listener
+			if (l.isDead() || !l.listensMouseEnterExit())
+				continue;
+			if (l.listensPosition(newMousePosition))
+			{
+				if (this.hoveredListeners.add(l))
+					l.onMousePositionEvent(MousePositionEventType.ENTER,
+							newMousePosition, 0);
+				else
+					l.onMousePositionEvent(MousePositionEventType.OVER,
+							newMousePosition, 0);
+			}
+		}
+		
+		// Informs about exiting the listeners the mouse was over
+		for (AdvancedMouseListener l :
+				new ArrayList<AdvancedMouseListener>(this.hoveredListeners))
+		{
+			if (l.isDead())
+				this.hoveredListeners.remove(l);
+			else if (!l.listensPosition(newMousePosition) ||
+					!l.listensMouseEnterExit())
+			{
+				this.hoveredListeners.remove(l);
+				l.onMousePositionEvent(MousePositionEventType.EXIT,
+						newMousePosition, 0);
+			}
+		}
+	}
+	
+	@Override
+	public void onMousePositionEvent(MousePositionEventType eventType,
+			Point2D.Double mousePosition, double eventStepTime)
+	{
+		// The listeners are informed about position events on mouse move
+	}
+	
+	@Override
+	public boolean listensPosition(Point2D.Double testedPosition)
+	{
+		return true;
+	}
+	
+	@Override
+	public boolean listensMouseEnterExit()
+	{
+		return false;
+	}
+	
+	@Override
+	public MouseButtonEventScale getCurrentButtonScaleOfInterest()
+	{
+		return MouseButtonEventScale.GLOBAL;
+	}
+	
+	@Override
+	public void onRoomStart(Room room)
+	{
+		removeDeadListeners();
+	}
+	
+	@Override
+	public void onRoomEnd(Room room)
+	{
+		removeDeadListeners();
+	}
+	
+	
+	// OTHER METHODS	-------------------------------------------------
+	
+	/**
+	 * Returns the dispatcher used in the given area. A new dispatcher is
+	 * created if the area doesn't have one yet.
+	 *
+	 * @param area The area the dispatcher works in
+	 * @return The dispatcher that informs the area's mouse listeners or null
+	 * if the area doesn't have a mouseHandler
+	 */
+	public static MouseDispatcher getDispatcher(Area area)
+	{
+		if (area.getMouseHandler() == null)
+			return null;
+		
+		MouseDispatcher dispatcher = dispatchers.get(area);
+		if (dispatcher == null || dispatcher.isDead())
+		{
+			dispatcher = new MouseDispatcher(area);
+			dispatchers.put(area, dispatcher);
+		}
+		
+		return dispatcher;
+	}
+	
+	/**
+	 * Adds a listener whose position is kept in the given index. The 
+	 * dispatcher doesn't track the listener's bounds but asks the index 
+	 * for the listeners near the mouse instead.
+	 *
+	 * @param l The listener that will be informed about mouse events
+	 * @param index The index that keeps track of the listener's position
+	 */
+	public void addIndexedMouseListener(AdvancedMouseListener l, 
+			MouseListenerIndex index)
+	{
+		if (!this.indices.contains(index))
+			this.indices.add(index);
+		
+		updateScale(l);
+	}
+	
+	/**
+	 * Moves a listener from the area's mouseHandler to the dispatcher. 
+	 * Buttons add themselves to the area's mouseHandler when they are 
+	 * created so they should be moved with this method afterwards.
+	 *
+	 * @param l The listener that will be informed by the dispatcher instead 
+	 * of the area's mouseHandler
+	 */
+	public void takeMouseListener(AdvancedMouseListener l)
+	{
+		this.areaHandler.removeMouseListener(l);
+		addMouseListener(l);
+	}
+	
+	// Returns the listeners that may be interested in an event at the given
+	// position
+	private ArrayList<AdvancedMouseListener> getCandidates(
+			Point2D.Double position)
+	{
+		ArrayList<AdvancedMouseListener> candidates =
+				new ArrayList<AdvancedMouseListener>(this.globalListeners);
+		candidates.addAll(this.unboundedListeners);
+		
+		ArrayList<AdvancedMouseListener> cell = this.grid.get(getCellKey(
+				getCell(position.getX()), getCell(position.getY())));
+		if (cell != null)
+			addLocalCandidates(candidates, cell);
+		for (MouseListenerIndex index : this.indices)
+		{
+			addLocalCandidates(candidates, index.getListenersNear(position));
+		}
+		
+		return candidates;
+	}
+	
+	private void addLocalCandidates(ArrayList<AdvancedMouseListener> candidates,
+			List<? extends AdvancedMouseListener> listeners)
+	{
+		for (AdvancedMouseListener l : listeners)
+		{
+			// Global listeners are already included
+			if (!this.globalListeners.contains(l))
+				candidates.add(l);
+		}
+	}
+	
+	private void removeDeadListeners()
+	{
+		for (AdvancedMouseListener l : 
+				new ArrayList<AdvancedMouseListener>(this.listenerCells.keySet()))
+		{
+			if (l.isDead())
+				removeFromGrid(l);
+		}
+		removeDeadListeners(this.unboundedListeners);
+		removeDeadListeners(this.globalListeners);
+		removeDeadListeners(this.hoveredListeners);
+	}
+	
+	private static void removeDeadListeners(
+			Collection<AdvancedMouseListener> listeners)
+	{
+		Iterator<AdvancedMouseListener> iterator = listeners.iterator();
+		while (iterator.hasNext())
+		{
+			if (iterator.next().isDead())
+				iterator.remove();
+		}
+	}
+	
+	private boolean isInformed(AdvancedMouseListener l)
+	{
+		if (l.isDead())
+		{
+			removeMouseListener(l);
+			return false;
+		}
+		
+		return l.isActive();
+	}
+	
+	// Moves the listener to the global list or back to the grid
+	private void updateScale(AdvancedMouseListener l)
+	{
+		boolean global = !l.isDead() && l.getCurrentButtonScaleOfInterest() ==
+				MouseButtonEventScale.GLOBAL;
+		
+		if (global && !this.globalListeners.contains(l))
+			this.globalListeners.add(l);
+		else if (!global)
+			this.globalListeners.remove(l);
+	}
+	
+	private void updateBounds(AdvancedMouseListener l, DimensionalDrawnObject o)
+	{
+		removeFromGrid(l);
+		if (o.isDead())
+			return;
+		
+		// The bounding box contains the transformed corners of the object.
+		// A small margin is added for the collision shapes that reach over 
+		// the box
+		Point2D.Double[] corners = o.transformMultipleRelativePoints(
+				new Point2D.Double[] {new Point2D.Double(0, 0),
+				new Point2D.Double(o.getWidth(), 0),
+				new Point2D.Double(0, o.getHeight()),
+				new Point2D.Double(o.getWidth(), o.getHeight())});
+		
+		double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+		double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+		for (Point2D.Double corner : corners)
+		{
+			minX = Math.min(minX, corner.getX());
+			minY = Math.min(minY, corner.getY());
+			maxX = Math.max(maxX, corner.getX());
+			maxY = Math.max(maxY, corner.getY());
+		}
+		int cellMinX = getCell(minX - MARGIN), cellMaxX = getCell(maxX + MARGIN);
+		int cellMinY = getCell(minY - MARGIN), cellMaxY = getCell(maxY + MARGIN);
+		long[] keys = new long[(cellMaxX - cellMinX + 1) *
+				(cellMaxY - cellMinY + 1)];
+		int keyAmount = 0;
+		
+		for (int x = cellMinX; x <= cellMaxX; x++)
+		{
+			for (int y = cellMinY; y <= cellMaxY; y++)
+			{
+				long key = getCellKey(x, y);
+				keys[keyAmount ++] = key;
+				
+				ArrayList<AdvancedMouseListener> cell = this.grid.get(key);
+				if (cell == null)
+				{
+					cell = new ArrayList<AdvancedMouseListener>();
+					this.grid.put(key, cell);
+				}
+				cell.add(l);
+			}
+		}
+		
+		this.listenerCells.put(l, keys);
+	}
+	
+	private void removeFromGrid(AdvancedMouseListener l)
+	{
+		long[] keys = this.listenerCells.remove(l);
+		if (keys == null)
+			return;
+		
+		for (int i = 0; i < keys.length; i++)
+		{
+			ArrayList<AdvancedMouseListener> cell = this.grid.get(keys[i]);
+			if (cell == null)
+				continue;
+			
+			cell.remove(l);
+			if (cell.isEmpty())
+				this.grid.remove(keys[i]);
+		}
+	}
+	
+	private static int getCell(double coordinate)
+	{
+		return (int) Math.floor(coordinate / CELLSIZE);
+	}
+	
+	private static long getCellKey(int cellX, int cellY)
+	{
+		return ((long) cellX << 32) | (cellY & 0xffffffffL);
+	}
+	
+	
+	// SUBCLASSES	-----------------------------------------------------
+	
+	// Moves a listener in the grid each time it's transformed
+	private class BoundsTracker implements TransformationListener
+	{
+		// ATTRIBUTES	-------------------------------------------------
+		
+		private AdvancedMouseListener listener;
+		private DimensionalDrawnObject object;
+		
+		
+		// CONSTRUCTOR	-------------------------------------------------
+		
+		public BoundsTracker(AdvancedMouseListener listener,
+				DimensionalDrawnObject object)
+		{
+			// Initializes attributes
+			this.listener = listener;
+			this.object = object;
+		}
+		
+		
+		// IMPLEMENTED METHODS	-----------------------------------------
+		
+		@Override
+		public boolean isActive()
+		{
+			return true;
+		}
+		
+		@Override
+		public void activate()
+		{
+			// Is always active
+		}
+		
+		@Override
+		public void inactivate()
+		{
+			// Is always active
+		}
+		
+		@Override
+		public boolean isDead()
+		{
+			return this.object.isDead();
+		}
+		
+		@Override
+		public void kill()
+		{
+			// Dies with the object
+		}
+		
+		@Override
+		public void onTransformationEvent(TransformationEvent e)
+		{
+			if (this.object.isDead())
+				removeMouseListener(this.listener);
+			else
+				updateBounds(this.listener, this.object);
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package uninamo_gameplaysupport;
+
+import genesis_logic.AdvancedMouseListener;
+
+import java.awt.geom.Point2D;
+import java.util.List;
+
+/**
+ * MouseListenerIndexes keep track of where their mouse listeners are. A
+ * mouseDispatcher uses the index to find the listeners instead of placing
+ * them in its own grid, which is useful for listeners whose bounding boxes
+ * are much larger than their shapes (long cables, for example).
+ *
+ * @author Mikko Hilpinen
+ * @since 5.4.2014
+ * @see MouseDispatcher
+ */
+public interface MouseListenerIndex
+{
+	/**
+	 * @param position A position in the area
+	 * @return The listeners that may be interested in mouse events at the
+	 * given position
+	 */
+	public List<? extends AdvancedMouseListener> getListenersNear(
+			Point2D.Double position);
+}
@@ -99,8 +99,8 @@ public class ObstacleCollector extends DrawnObject implements CollisionListener,
 		this.collectableDrawer.addPosition(width / 4, 0);
 		
 		// Adds the object to the handler(s)
-		if (area.getCollisionHandler() != null)
-			area.getCollisionHandler().addCollisionListener(this);
+		CollisionSweeper.getSweeper(area).addCollisionListener(this, 
+				CollisionLayer.COLLECTOR);
 		if (testHandler != null)
 			testHandler.addTestable(this);
 		
@@ -0,0 +1,22 @@
+package uninamo_gameplaysupport;
+
+import genesis_logic.LogicalHandled;
+
+/**
+ * PhysicsBased instances are updated in fixed physics steps instead of the
+ * variable steps of the game loop, so that they behave the same way
+ * regardless of the frame rate.
+ *
+ * @author Mikko Hilpinen
+ * @since 4.4.2014
+ * @see PhysicsStepper
+ */
+public interface PhysicsBased extends LogicalHandled
+{
+	/**
+	 * This method is called once for each physics step
+	 *
+	 * @param steps How long the physics step is (always the same)
+	 */
+	public void onPhysicsStep(int steps);
+}
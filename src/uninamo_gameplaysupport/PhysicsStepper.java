@@ -0,0 +1,207 @@
+package uninamo_gameplaysupport;
+
+import genesis_logic.Actor;
+import genesis_logic.Handled;
+import genesis_logic.Handler;
+
+import java.util.HashMap;
+
+import omega_world.Area;
+import uninamo_main.GameSettings;
+
+/**
+ * PhysicsStepper runs an area's physics in fixed steps. The variable steps
+ * of the game loop are accumulated and for each full physics step the
+ * physicsBased objects are informed in the order they were added, after
+ * which the area's collisions are checked. This way the same mission and
+ * circuit always produce the same result, no matter how loaded the machine
+ * is. The stepper can also fast-forward a number of steps, in which case 
+ * the steps are run in large batches in place of the game loop's steps.
+ *
+ * @author Mikko Hilpinen
+ * @since 4.4.2014
+ */
+public class PhysicsStepper extends Handler implements Actor
+{
+	// ATTRIBUTES	------------------------------------------------------
+	
+	private double accumulatedSteps;
+	private int fastForwardSteps;
+	private boolean active;
+	private CollisionSweeper sweeper;
+	
+	private static HashMap<Area, PhysicsStepper> steppers =
+			new HashMap<Area, PhysicsStepper>();
+	
+	
+	// CONSTRUCTOR	------------------------------------------------------
+	
+	private PhysicsStepper(Area area)
+	{
+		super(false, null);
+		
+		// Initializes attributes
+		this.accumulatedSteps = 0;
+		this.fastForwardSteps = 0;
+		this.active = true;
+		this.sweeper = null;
+		
+		// Adds the object to the handler(s)
+		if (area.getActorHandler() != null)
+			area.getActorHandler().addActor(this);
+	}
+	
+	
+	// IMPLEMENTED METHODS	---------------------------------------------
+	
+	@Override
+	public boolean isActive()
+	{
+		return this.active;
+	}
+	
+	@Override
+	public void activate()
+	{
+		this.active = true;
+	}
+	
+	@Override
+	public void inactivate()
+	{
+		this.active = false;
+	}
+	
+	@Override
+	public void act(double steps)
+	{
+		int maxStepsRun = GameSettings.maxPhysicsStepsPerCall;
+		
+		// While fast-forwarding, a batch of the fast-forwarded steps is run 
+		// instead of the game loop's steps
+		if (this.fastForwardSteps > 0)
+		{
+			int batch = Math.min(this.fastForwardSteps, 
+					GameSettings.fastForwardStepsPerFrame);
+			this.fastForwardSteps -= batch;
+			steps = batch;
+			maxStepsRun = Math.max(maxStepsRun, 
+					batch / GameSettings.physicsStepLength + 1);
+		}
+		
+		this.accumulatedSteps += steps;
+		
+		// Runs as many full physics steps as there is time for. If the game
+		// lags behind a lot, the rest of the time is dropped instead of
+		// trying to catch up
+		int stepsRun = 0;
+		while (this.accumulatedSteps >= GameSettings.physicsStepLength)
+		{
+			if (stepsRun >= maxStepsRun)
+			{
+				this.accumulatedSteps = 0;
+				break;
+			}
+			
+			this.accumulatedSteps -= GameSettings.physicsStepLength;
+			handleObjects();
+			if (this.sweeper != null && !this.sweeper.isDead())
+				this.sweeper.act(GameSettings.physicsStepLength);
+			stepsRun ++;
+		}
+	}
+	
+	@Override
+	protected Class<?> getSupportedClass()
+	{
+		return PhysicsBased.class;
+	}
+	
+	@Override
+	protected boolean handleObject(Handled h)
+	{
+		// Informs the object about a physics step
+		PhysicsBased p = (PhysicsBased) h;
+		if (p.isActive())
+			p.onPhysicsStep(GameSettings.physicsStepLength);
+		
+		return true;
+	}
+	
+	
+	// GETTERS & SETTERS	---------------------------------------------
+	
+	/**
+	 * @return Does the stepper still have fast-forwarded steps left to run
+	 */
+	public boolean isFastForwarding()
+	{
+		return this.fastForwardSteps > 0;
+	}
+	
+	
+	// OTHER METHODS	-------------------------------------------------
+	
+	/**
+	 * Returns the stepper used in the given area. A new stepper is created
+	 * if the area doesn't have one yet.
+	 *
+	 * @param area The area the stepper works in
+	 * @return The stepper that runs the physics in the area
+	 */
+	public static PhysicsStepper getStepper(Area area)
+	{
+		PhysicsStepper stepper = steppers.get(area);
+		if (stepper == null || stepper.isDead())
+		{
+			stepper = new PhysicsStepper(area);
+			steppers.put(area, stepper);
+		}
+		
+		return stepper;
+	}
+	
+	/**
+	 * Adds a new object to the informed objects. The objects are informed in
+	 * the order they were added.
+	 *
+	 * @param p The object that will be informed about physics steps
+	 */
+	public void addPhysicsBased(PhysicsBased p)
+	{
+		addHandled(p);
+	}
+	
+	/**
+	 * Runs the given amount of steps as fast as possible. The steps are run 
+	 * in batches over the next frames, during which the game loop's own 
+	 * steps are ignored.
+	 *
+	 * @param steps How many steps are fast-forwarded
+	 */
+	public void fastForward(int steps)
+	{
+		if (steps > 0)
+			this.fastForwardSteps += steps;
+	}
+	
+	/**
+	 * Stops the fast-forward. The steps that haven't been run yet are 
+	 * dropped.
+	 */
+	public void stopFastForward()
+	{
+		this.fastForwardSteps = 0;
+	}
+	
+	/**
+	 * Changes the collisionSweeper that checks the collisions after each
+	 * physics step
+	 *
+	 * @param sweeper The sweeper that checks the collisions in the area
+	 */
+	public void setCollisionSweeper(CollisionSweeper sweeper)
+	{
+		this.sweeper = sweeper;
+	}
+}
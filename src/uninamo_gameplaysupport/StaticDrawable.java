@@ -0,0 +1,31 @@
+package uninamo_gameplaysupport;
+
+import genesis_graphic.Drawable;
+
+import java.awt.Rectangle;
+
+/**
+ * StaticDrawables are drawn from their area's staticLayer while they don't 
+ * change their looks. While the object is static it shouldn't draw itself 
+ * unless the layer is caching. The layer must be informed whenever the 
+ * object's looks change.
+ *
+ * @author Mikko Hilpinen
+ * @since 5.4.2014
+ * @see StaticLayer
+ */
+public interface StaticDrawable extends Drawable
+{
+	/**
+	 * @return Does the object currently look the same from frame to frame. 
+	 * The staticLayer must be informed when this changes.
+	 */
+	public boolean isStatic();
+	
+	/**
+	 * @return The area the object covers when it is drawn. Null if the area 
+	 * is not known, in which case any change in the object causes the 
+	 * whole layer to be redrawn.
+	 */
+	public Rectangle getDrawBounds();
+}
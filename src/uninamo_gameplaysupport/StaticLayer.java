@@ -0,0 +1,505 @@
+package uninamo_gameplaysupport;
+
+import genesis_graphic.DepthConstants;
+import genesis_graphic.Drawable;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.geom.Point2D;
+import java.awt.image.VolatileImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import omega_graphic.DrawnObject;
+import omega_graphic.Sprite;
+import omega_graphic.TransformationListener;
+import omega_world.Area;
+import uninamo_main.GameSettings;
+
+/**
+ * StaticLayer draws the parts of an area that don't change from frame to
+ * frame. The background and the static objects are drawn into a single
+ * image, which is then drawn each frame. The objects report the regions
+ * they have damaged by moving or changing their looks and only the union
+ * of those regions is redrawn into the image.
+ *
+ * @author Mikko Hilpinen
+ * @since 5.4.2014
+ * @see StaticDrawable
+ */
+public class StaticLayer implements Drawable
+{
+	// ATTRIBUTES	------------------------------------------------------
+	
+	private ArrayList<StaticDrawable> drawables;
+	private HashMap<StaticDrawable, Rectangle> drawnBounds;
+	private HashMap<StaticDrawable, DamageTracker> trackers;
+	private Sprite background;
+	private VolatileImage cache;
+	private Rectangle dirtyArea;
+	private boolean visible, dead, changed, caching;
+	private int depth;
+	
+	private static HashMap<Area, StaticLayer> layers =
+			new HashMap<Area, StaticLayer>();
+	
+	
+	// CONSTRUCTOR	------------------------------------------------------
+	
+	private StaticLayer(Area area)
+	{
+		// Initializes attributes
+		this.drawables = new ArrayList<StaticDrawable>();
+		this.drawnBounds = new HashMap<StaticDrawable, Rectangle>();
+		this.trackers = new HashMap<StaticDrawable, DamageTracker>();
+		this.background = null;
+		this.cache = null;
+		this.dirtyArea = null;
+		this.visible = true;
+		this.dead = false;
+		this.changed = true;
+		this.caching = false;
+		this.depth = DepthConstants.BOTTOM;
+		
+		// Adds the object to the handler(s)
+		if (area.getDrawer() != null)
+			area.getDrawer().addDrawable(this);
+	}
+	
+	
+	// IMPLEMENTED METHODS	---------------------------------------------
+	
+	@Override
+	public boolean isDead()
+	{
+		return this.dead;
+	}
+	
+	@Override
+	public void kill()
+	{
+		this.dead = true;
+		for (DamageTracker tracker : this.trackers.values())
+		{
+			tracker.kill();
+		}
+		this.trackers.clear();
+		this.drawables.clear();
+		this.drawnBounds.clear();
+		if (this.cache != null)
+		{
+			this.cache.flush();
+			this.cache = null;
+		}
+	}
+	
+	@Override
+	public void drawSelf(Graphics2D g2d)
+	{
+		// Redraws the image if it has changed or if its contents were lost
+		GraphicsConfiguration configuration = g2d.getDeviceConfiguration();
+		if (this.cache == null || this.changed || this.dirtyArea != null ||
+				this.cache.validate(configuration) != VolatileImage.IMAGE_OK)
+			updateCache(configuration);
+		
+		g2d.drawImage(this.cache, 0, 0, null);
+		
+		// If the image was lost while drawing, it is redrawn on the next frame
+		if (this.cache.contentsLost())
+			this.changed = true;
+	}
+	
+	@Override
+	public boolean isVisible()
+	{
+		return this.visible;
+	}
+	
+	@Override
+	public void setVisible()
+	{
+		this.visible = true;
+	}
+	
+	@Override
+	public void setInvisible()
+	{
+		this.visible = false;
+	}
+	
+	@Override
+	public int getDepth()
+	{
+		return this.depth;
+	}
+	
+	@Override
+	public boolean setDepth(int depth)
+	{
+		this.depth = depth;
+		return true;
+	}
+	
+	
+	// GETTERS & SETTERS	---------------------------------------------
+	
+	/**
+	 * @return Is the layer currently drawing the static objects into its
+	 * image. The static objects should only draw themselves when this is true.
+	 */
+	public boolean isCaching()
+	{
+		return this.caching;
+	}
+	
+	/**
+	 * Changes the background that is tiled under the static objects
+	 *
+	 * @param background The sprite used as the background (null if no
+	 * background should be drawn)
+	 */
+	public void setBackground(Sprite background)
+	{
+		this.background = background;
+		
+		// The image's transparency depends on the background so a new image
+		// is created
+		if (this.cache != null)
+		{
+			this.cache.flush();
+			this.cache = null;
+		}
+	}
+	
+	
+	// OTHER METHODS	-------------------------------------------------
+	
+	/**
+	 * Returns the layer used in the given area. A new layer is created if
+	 * the area doesn't have one yet.
+	 *
+	 * @param area The area the layer draws
+	 * @return The layer that draws the static parts of the area
+	 */
+	public static StaticLayer getLayer(Area area)
+	{
+		StaticLayer layer = layers.get(area);
+		if (layer == null || layer.isDead())
+		{
+			layer = new StaticLayer(area);
+			layers.put(area, layer);
+		}
+		
+		return layer;
+	}
+	
+	/**
+	 * Calculates the area a drawnObject covers when it is drawn
+	 *
+	 * @param o The object that is drawn
+	 * @param width The width of the object before transformations
+	 * @param height The height of the object before transformations
+	 * @param margin How many pixels are added to each side of the area to
+	 * cover anything drawn outside the object's sprite
+	 * @return The area the object covers when it is drawn
+	 */
+	public static Rectangle getDrawBounds(DrawnObject o, int width,
+			int height, int margin)
+	{
+		Point2D.Double[] corners = new Point2D.Double[4];
+		corners[0] = new Point2D.Double(-margin, -margin);
+		corners[1] = new Point2D.Double(width + margin, -margin);
+		corners[2] = new Point2D.Double(width + margin, height + margin);
+		corners[3] = new Point2D.Double(-margin, height + margin);
+		
+		Point2D.Double[] transformed = o.transformMultipleRelativePoints(
+				corners);
+		if (transformed == null || transformed.length == 0)
+			return null;
+		
+		double minX = transformed[0].getX();
+		double maxX = minX;
+		double minY = transformed[0].getY();
+		double maxY = minY;
+		for (int i = 1; i < transformed.length; i++)
+		{
+			minX = Math.min(minX, transformed[i].getX());
+			maxX = Math.max(maxX, transformed[i].getX());
+			minY = Math.min(minY, transformed[i].getY());
+			maxY = Math.max(maxY, transformed[i].getY());
+		}
+		
+		// The edges are rounded outwards
+		int x = (int) Math.floor(minX) - 1;
+		int y = (int) Math.floor(minY) - 1;
+		return new Rectangle(x, y, (int) Math.ceil(maxX) + 1 - x,
+				(int) Math.ceil(maxY) + 1 - y);
+	}
+	
+	/**
+	 * Adds a new object to the layer. The object is drawn into the layer's
+	 * image while it is static.
+	 *
+	 * @param d The object that will be drawn by the layer
+	 */
+	public void addStaticDrawable(StaticDrawable d)
+	{
+		if (this.drawables.contains(d))
+			return;
+		
+		// The objects are kept in drawing order, the deepest first
+		int index = 0;
+		while (index < this.drawables.size() &&
+				this.drawables.get(index).getDepth() >= d.getDepth())
+		{
+			index ++;
+		}
+		this.drawables.add(index, d);
+		
+		// Moving objects damage the image
+		if (d instanceof DrawnObject)
+		{
+			DamageTracker tracker = new DamageTracker(d);
+			this.trackers.put(d, tracker);
+			((DrawnObject) d).getTransformationListenerHandler().addListener(
+					tracker);
+		}
+		
+		invalidate(d);
+	}
+	
+	/**
+	 * Removes an object from the layer
+	 *
+	 * @param d The object that will no longer be drawn by the layer
+	 */
+	public void removeStaticDrawable(StaticDrawable d)
+	{
+		if (!this.drawables.remove(d))
+			return;
+		
+		DamageTracker tracker = this.trackers.remove(d);
+		if (tracker != null)
+			tracker.kill();
+		
+		// The area the object was drawn on needs to be redrawn
+		if (this.drawnBounds.containsKey(d))
+			damage(this.drawnBounds.remove(d));
+	}
+	
+	/**
+	 * Informs the layer that the whole image needs to be redrawn
+	 */
+	public void invalidate()
+	{
+		this.changed = true;
+	}
+	
+	/**
+	 * Informs the layer that a region of the image needs to be redrawn
+	 *
+	 * @param area The area that has changed (null if the whole image should
+	 * be redrawn)
+	 */
+	public void invalidate(Rectangle area)
+	{
+		damage(area);
+	}
+	
+	/**
+	 * Informs the layer that one of its objects has moved, changed its looks
+	 * or started or stopped being static. The areas where the object was and
+	 * where it is now are redrawn.
+	 *
+	 * @param d The object that has changed
+	 */
+	public void invalidate(StaticDrawable d)
+	{
+		if (!this.drawables.contains(d))
+			return;
+		
+		// Damages the area the object was drawn on
+		if (this.drawnBounds.containsKey(d))
+			damage(this.drawnBounds.remove(d));
+		
+		// As well as the area it will be drawn on
+		if (!d.isDead() && d.isVisible() && d.isStatic())
+		{
+			Rectangle bounds = d.getDrawBounds();
+			damage(bounds);
+			this.drawnBounds.put(d, bounds);
+		}
+	}
+	
+	private void damage(Rectangle area)
+	{
+		// Unknown areas cause the whole image to be redrawn
+		if (area == null)
+			this.changed = true;
+		else if (this.dirtyArea == null)
+			this.dirtyArea = new Rectangle(area);
+		else
+			this.dirtyArea.add(area);
+	}
+	
+	// Draws the background and the static objects into the damaged part of
+	// the image
+	private void updateCache(GraphicsConfiguration configuration)
+	{
+		int width = GameSettings.screenWidth;
+		int height = GameSettings.screenHeight;
+		
+		// Removes the dead objects first so that their areas are redrawn
+		for (int i = this.drawables.size() - 1; i >= 0; i--)
+		{
+			if (this.drawables.get(i).isDead())
+				removeStaticDrawable(this.drawables.get(i));
+		}
+		
+		do
+		{
+			int status = VolatileImage.IMAGE_INCOMPATIBLE;
+			if (this.cache != null)
+				status = this.cache.validate(configuration);
+			
+			if (status == VolatileImage.IMAGE_INCOMPATIBLE)
+			{
+				if (this.cache != null)
+					this.cache.flush();
+				
+				int transparency = Transparency.OPAQUE;
+				if (this.background == null)
+					transparency = Transparency.TRANSLUCENT;
+				this.cache = configuration.createCompatibleVolatileImage(width,
+						height, transparency);
+				// A new image is always reported as restored at first
+				this.cache.validate(configuration);
+				this.changed = true;
+			}
+			else if (status == VolatileImage.IMAGE_RESTORED)
+				this.changed = true;
+			
+			// Only the damaged area is redrawn, unless the whole image has
+			// changed
+			Rectangle area = new Rectangle(0, 0, width, height);
+			if (!this.changed && this.dirtyArea != null)
+				area = area.intersection(this.dirtyArea);
+			
+			Graphics2D g2d = this.cache.createGraphics();
+			g2d.setClip(area);
+			
+			// Clears the previous image
+			g2d.setComposite(AlphaComposite.Clear);
+			g2d.fillRect(area.x, area.y, area.width, area.height);
+			g2d.setComposite(AlphaComposite.SrcOver);
+			
+			// Tiles the background
+			if (this.background != null && this.background.getWidth() > 0 &&
+					this.background.getHeight() > 0)
+			{
+				for (int x = 0; x < width; x += this.background.getWidth())
+				{
+					for (int y = 0; y < height;
+							y += this.background.getHeight())
+					{
+						if (area.intersects(x, y, this.background.getWidth(),
+								this.background.getHeight()))
+							g2d.drawImage(this.background.getSubImage(0), x,
+									y, null);
+					}
+				}
+			}
+			
+			// Draws the static objects that are in the area
+			if (this.changed)
+				this.drawnBounds.clear();
+			this.caching = true;
+			for (StaticDrawable d : this.drawables)
+			{
+				if (!d.isVisible() || !d.isStatic())
+					continue;
+				
+				if (this.changed)
+					this.drawnBounds.put(d, d.getDrawBounds());
+				else
+				{
+					Rectangle bounds = this.drawnBounds.get(d);
+					if (bounds != null && !bounds.intersects(area))
+						continue;
+				}
+				
+				d.drawSelf(g2d);
+			}
+			this.caching = false;
+			
+			g2d.dispose();
+		}
+		while (this.cache.contentsLost());
+		
+		this.changed = false;
+		this.dirtyArea = null;
+	}
+	
+	
+	// SUBCLASSES	-----------------------------------------------------
+	
+	private class DamageTracker implements TransformationListener
+	{
+		// ATTRIBUTES	-------------------------------------------------
+		
+		private StaticDrawable drawable;
+		private boolean dead;
+		
+		
+		// CONSTRUCTOR	-------------------------------------------------
+		
+		public DamageTracker(StaticDrawable drawable)
+		{
+			// Initializes attributes
+			this.drawable = drawable;
+			this.dead = false;
+		}
+		
+		
+		// IMPLEMENTED METHODS	-----------------------------------------
+		
+		@Override
+		public boolean isActive()
+		{
+			return true;
+		}
+		
+		@Override
+		public void activate()
+		{
+			// Is always active
+		}
+		
+		@Override
+		public void inactivate()
+		{
+			// Is always active
+		}
+		
+		@Override
+		public boolean isDead()
+		{
+			return this.dead || this.drawable.isDead();
+		}
+		
+		@Override
+		public void kill()
+		{
+			this.dead = true;
+		}
+		
+		@Override
+		public void onTransformationEvent(TransformationEvent e)
+		{
+			invalidate(this.drawable);
+		}
+	}
+}
@@ -14,6 +14,7 @@ public class TestHandler extends Handler implements TestListener
 	// ATTRIBUTES	------------------------------------------------------
 	
 	private int lastEvent;
+	private FastForwarder fastForwarder;
 	
 	private static final int START = 1, END = 2;
 	
@@ -31,6 +32,7 @@ public class TestHandler extends Handler implements TestListener
 		
 		// Initializes attributes
 		this.lastEvent = 0;
+		this.fastForwarder = null;
 	}
 	
 	
@@ -80,4 +82,31 @@ public class TestHandler extends Handler implements TestListener
 	{
 		addHandled(t);
 	}
+	
+	/**
+	 * Changes the fastForwarder used in fast-forward tests
+	 * 
+	 * @param fastForwarder The fastForwarder that runs the fast-forward tests
+	 */
+	public void setFastForwarder(FastForwarder fastForwarder)
+	{
+		this.fastForwarder = fastForwarder;
+	}
+	
+	/**
+	 * Starts a new test and runs the given amount of turns as fast as 
+	 * possible. If the handler doesn't have a fastForwarder, the test runs 
+	 * at normal speed.
+	 * 
+	 * @param turns How many turns are fast-forwarded
+	 */
+	public void startFastForwardTest(int turns)
+	{
+		onTestStart();
+		
+		if (this.fastForwarder != null)
+			this.fastForwarder.fastForward(turns);
+		else
+			System.err.println("The testHandler doesn't have a fastForwarder");
+	}
 }
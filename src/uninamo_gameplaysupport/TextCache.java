@@ -0,0 +1,139 @@
+package uninamo_gameplaysupport;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import uninamo_main.GameSettings;
+
+/**
+ * TextCache holds the laid out glyphs of the texts drawn in the game so that
+ * the same text doesn't need to be laid out again each frame. The texts that
+ * haven't been drawn for the longest time are removed when the cache is
+ * full.
+ *
+ * @author Mikko Hilpinen
+ * @since 5.4.2014
+ */
+public class TextCache
+{
+	// ATTRIBUTES	------------------------------------------------------
+	
+	private static Map<TextKey, GlyphVector> glyphs =
+			new LinkedHashMap<TextKey, GlyphVector>(16, 0.75f, true)
+			{
+				private static final long serialVersionUID = 1L;
+				
+				@Override
+				protected boolean removeEldestEntry(
+						Map.Entry<TextKey, GlyphVector> eldest)
+				{
+					return size() > GameSettings.textCacheSize;
+				}
+			};
+	
+	
+	// CONSTRUCTOR	------------------------------------------------------
+	
+	private TextCache()
+	{
+		// Constructor is never used
+	}
+	
+	
+	// OTHER METHODS	-------------------------------------------------
+	
+	/**
+	 * Draws a text using the font and the colour of the graphics object.
+	 * This works like {@link Graphics2D#drawString(String, float, float)}
+	 * except that the text is only laid out the first time it is drawn.
+	 *
+	 * @param g2d The graphics object used for drawing
+	 * @param text The text that will be drawn
+	 * @param x The x-coordinate of the text's baseline
+	 * @param y The y-coordinate of the text's baseline
+	 */
+	public static void drawString(Graphics2D g2d, String text, float x,
+			float y)
+	{
+		if (text == null || text.isEmpty())
+			return;
+		
+		g2d.drawGlyphVector(getGlyphs(text, g2d.getFont(),
+				g2d.getFontRenderContext()), x, y);
+	}
+	
+	/**
+	 * Returns the laid out glyphs for the given text. The glyphs are only
+	 * created if they can't be found from the cache.
+	 *
+	 * @param text The text that is laid out
+	 * @param font The font used for the text
+	 * @param context The context the text will be drawn in
+	 * @return The glyphs of the text
+	 */
+	public static synchronized GlyphVector getGlyphs(String text, Font font,
+			FontRenderContext context)
+	{
+		TextKey key = new TextKey(text, font, context);
+		GlyphVector textGlyphs = glyphs.get(key);
+		
+		if (textGlyphs == null)
+		{
+			textGlyphs = font.createGlyphVector(context, text);
+			glyphs.put(key, textGlyphs);
+		}
+		
+		return textGlyphs;
+	}
+	
+	
+	// SUBCLASSES	-----------------------------------------------------
+	
+	private static class TextKey
+	{
+		// ATTRIBUTES	-------------------------------------------------
+		
+		private String text;
+		private Font font;
+		private FontRenderContext context;
+		private int hash;
+		
+		
+		// CONSTRUCTOR	-------------------------------------------------
+		
+		public TextKey(String text, Font font, FontRenderContext context)
+		{
+			// Initializes attributes
+			this.text = text;
+			this.font = font;
+			this.context = context;
+			this.hash = (text.hashCode() * 31 + font.hashCode()) * 31 +
+					context.hashCode();
+		}
+		
+		
+		// IMPLEMENTED METHODS	-----------------------------------------
+		
+		@Override
+		public int hashCode()
+		{
+			return this.hash;
+		}
+		
+		@Override
+		public boolean equals(Object other)
+		{
+			if (!(other instanceof TextKey))
+				return false;
+			
+			TextKey key = (TextKey) other;
+			return this.hash == key.hash && this.text.equals(key.text) &&
+					this.font.equals(key.font) &&
+					this.context.equals(key.context);
+		}
+	}
+}
@@ -251,7 +251,7 @@ public class TotalCostAnalyzer implements RoomListener
 			// Draws the text
 			g2d.setFont(GameSettings.basicFont);
 			g2d.setColor(Color.BLACK);
-			g2d.drawString(this.line, 0, 0);
+			TextCache.drawString(g2d, this.line, 0, 0);
 		}
 	}
 	
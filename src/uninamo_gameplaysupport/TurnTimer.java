@@ -1,25 +1,24 @@
 package uninamo_gameplaysupport;
 
-import genesis_logic.ActorHandler;
 import omega_world.Room;
 import omega_world.RoomListener;
-import timers.ContinuousTimer;
-import timers.TimerEventListener;
 import uninamo_main.GameSettings;
 
 /**
  * The turnTimer informs multiple objects about the pass of turns. The timer 
- * continues to inform the objects until the room ends
+ * continues to inform the objects until the room ends. The turns are counted 
+ * in physics steps so that they always start at the same point of the 
+ * physics simulation.
  * 
  * @author Mikko Hilpinen
  * @since 10.3.2014
  */
 public class TurnTimer extends TurnHandler implements RoomListener, TestListener, 
-		TimerEventListener
+		PhysicsBased
 {
 	// ATTRIBUTES	------------------------------------------------------
 	
-	private ContinuousTimer timer;
+	private int stepsUntilTurn;
 	private boolean active;
 	
 	
@@ -31,24 +30,25 @@ public class TurnTimer extends TurnHandler implements RoomListener, TestListener
 	 * @param testHandler The testHandler that will inform the timer about 
 	 * test events
 	 * @param room The room where the timer resides
-	 * @param actorHandler The ActorHandler that informs the object about 
-	 * step events
+	 * @param stepper The physicsStepper that informs the object about 
+	 * physics steps
 	 */
 	public TurnTimer(TestHandler testHandler, Room room, 
-			ActorHandler actorHandler)
+			PhysicsStepper stepper)
 	{
 		super(null);
 		
 		// Initializes attributes
 		this.active = true;
-		this.timer = new ContinuousTimer(this, GameSettings.turnDuration, 0, 
-				actorHandler);
+		this.stepsUntilTurn = GameSettings.turnDuration;
 		
 		// Adds the object to the handler(s)
 		if (testHandler != null)
 			testHandler.addTestable(this);
 		if (room != null)
 			room.addRoomListener(this);
+		if (stepper != null)
+			stepper.addPhysicsBased(this);
 	}
 	
 	
@@ -71,7 +71,7 @@ public class TurnTimer extends TurnHandler implements RoomListener, TestListener
 	public void onTestStart()
 	{
 		// Resets the timer
-		this.timer.reset();
+		this.stepsUntilTurn = GameSettings.turnDuration;
 	}
 
 	@Override
@@ -99,17 +99,14 @@ public class TurnTimer extends TurnHandler implements RoomListener, TestListener
 	}
 
 	@Override
-	public void onTimerEvent(int timerid)
+	public void onPhysicsStep(int steps)
 	{
-		// Informs the objects about a turn
-		onTurnEvent();
-	}
-	
-	@Override
-	public void killWithoutKillingHandleds()
-	{
-		// Also kills the timer
-		this.timer.kill();
-		super.killWithoutKillingHandleds();
+		// Informs the objects about a turn each time enough steps have passed
+		this.stepsUntilTurn -= steps;
+		while (this.stepsUntilTurn <= 0)
+		{
+			this.stepsUntilTurn += GameSettings.turnDuration;
+			onTurnEvent();
+		}
 	}
 }
@@ -13,6 +13,8 @@ import omega_gameplay.Movement;
 import omega_graphic.TransformationListener;
 import omega_world.Area;
 import uninamo_components.ConnectorRelay;
+import uninamo_gameplaysupport.CollisionLayer;
+import uninamo_gameplaysupport.CollisionSweeper;
 import uninamo_gameplaysupport.TestHandler;
 import uninamo_gameplaysupport.Wall;
 import uninamo_main.GameSettings;
@@ -86,8 +88,8 @@ public class ConveyorBelt extends Machine implements Wall, CollisionListener,
 		//collisionHandler.printHandledNumber();
 		
 		// Adds the object to the handler(s)
-		if (machineArea.getCollisionHandler() != null)
-			machineArea.getCollisionHandler().addCollisionListener(this);
+		CollisionSweeper.getSweeper(machineArea).addCollisionListener(this, 
+				CollisionLayer.MACHINE);
 		
 		getTransformationListenerHandler().addListener(this);
 	}
@@ -154,6 +156,9 @@ public class ConveyorBelt extends Machine implements Wall, CollisionListener,
 			
 			Obstacle o = (Obstacle) collided;
 			
+			// Resting obstacles start moving with the belt
+			o.wakeUp();
+			
 			double optimalSpeed = GameSettings.normalTurnSpeed * this.speedSign;
 			
 			if ((this.speedSign == 1 && o.getMovement().getHSpeed() < optimalSpeed) 
@@ -184,6 +189,13 @@ public class ConveyorBelt extends Machine implements Wall, CollisionListener,
 		return MachineType.CONVEYORBELT;
 	}
 	
+	@Override
+	public boolean isStatic()
+	{
+		// A running belt is animated
+		return super.isStatic() && !this.running;
+	}
+	
 	
 	// OTHER METHODS	--------------------------------------------------
 	
@@ -193,6 +205,8 @@ public class ConveyorBelt extends Machine implements Wall, CollisionListener,
 			getSpriteDrawer().setImageSpeed(this.speedSign * 0.1);
 		else
 			getSpriteDrawer().setImageSpeed(0);
+		
+		invalidateStaticLook();
 	}
 	
 	private void updateAbsoluteCollisionPoints()
@@ -4,6 +4,7 @@ import genesis_graphic.DepthConstants;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.geom.Point2D;
 
 import omega_gameplay.CollisionType;
@@ -17,10 +18,14 @@ import omega_world.RoomListener;
 import uninamo_components.ConnectorRelay;
 import uninamo_components.MachineInputComponent;
 import uninamo_components.MachineOutputComponent;
+import uninamo_gameplaysupport.CollisionLayer;
+import uninamo_gameplaysupport.CollisionSweeper;
+import uninamo_gameplaysupport.StaticDrawable;
+import uninamo_gameplaysupport.StaticLayer;
 import uninamo_gameplaysupport.TestHandler;
+import uninamo_gameplaysupport.TextCache;
 import uninamo_gameplaysupport.TestListener;
 import uninamo_main.GameSettings;
-import uninamo_obstacles.Obstacle;
 
 /**
  * Machines interact with actors as well as components. Machines have different 
@@ -30,20 +35,20 @@ import uninamo_obstacles.Obstacle;
  * @since 9.3.2014
  */
 public abstract class Machine extends DimensionalDrawnObject implements 
-		RoomListener, TestListener
+		RoomListener, TestListener, StaticDrawable
 {
 	// ATTRIBUTES	-----------------------------------------------------
 	
 	private MachineOutputComponent output;
 	private MachineInputComponent input;
 	private MultiSpriteDrawer spritedrawer;
+	private StaticLayer staticLayer;
 	private String name;
 	private boolean testing;
 	
 	private static int inputComponentsCreated = 0;
 	private static int outputComponentsCreated = 0;
 	private static final int COMPONENTDISTANCE = 85;
-	private static final Class<?>[] COLLIDEDCLASSES = {Obstacle.class};
 	
 	
 	// CONSTRUCTOR	-----------------------------------------------------
@@ -100,6 +105,7 @@ public abstract class Machine extends DimensionalDrawnObject implements
 		this.output = null;
 		this.input = null;
 		this.testing = false;
+		this.staticLayer = null;
 		
 		// Increases the counter (if possible)
 		if (machineCounter != null)
@@ -164,6 +170,15 @@ public abstract class Machine extends DimensionalDrawnObject implements
 		// Adds the object to the handler(s)
 		if (testHandler != null)
 			testHandler.addTestable(this);
+		CollisionSweeper.getSweeper(machineArea).addCollidable(this, 
+				CollisionLayer.MACHINE);
+		// The test versions may be animated freely, so they are always drawn 
+		// separately
+		if (!isForTesting)
+		{
+			this.staticLayer = StaticLayer.getLayer(machineArea);
+			this.staticLayer.addStaticDrawable(this);
+		}
 		
 		// Forces transformation update
 		forceTransformationUpdate();
@@ -191,8 +206,8 @@ public abstract class Machine extends DimensionalDrawnObject implements
 	@Override
 	public Class<?>[] getSupportedListenerClasses()
 	{
-		// Only obstacles interact with the machines in a physical way
-		return COLLIDEDCLASSES;
+		// The collisions are checked by the area's collisionSweeper
+		return CollisionSweeper.NOLISTENERCLASSES;
 	}
 
 	@Override
@@ -240,6 +255,17 @@ public abstract class Machine extends DimensionalDrawnObject implements
 		return this.spritedrawer.getSprite().getOriginY();
 	}
 
+	@Override
+	public void drawSelf(Graphics2D g2d)
+	{
+		// While the machine is static, it is drawn from the staticLayer
+		if (this.staticLayer != null && isStatic() && 
+				!this.staticLayer.isCaching())
+			return;
+		
+		super.drawSelf(g2d);
+	}
+
 	@Override
 	public void drawSelfBasic(Graphics2D g2d)
 	{
@@ -254,7 +280,7 @@ public abstract class Machine extends DimensionalDrawnObject implements
 		{
 			g2d.setFont(GameSettings.basicFont);
 			g2d.setColor(Color.WHITE);
-			g2d.drawString(toString(), 0, 0);
+			TextCache.drawString(g2d, toString(), 0, 0);
 		}
 		
 		drawCollisionArea(g2d);
@@ -285,6 +311,9 @@ public abstract class Machine extends DimensionalDrawnObject implements
 			outputComponentsCreated --;
 		}
 		
+		if (this.staticLayer != null)
+			this.staticLayer.removeStaticDrawable(this);
+		
 		super.kill();
 	}
 	
@@ -294,6 +323,7 @@ public abstract class Machine extends DimensionalDrawnObject implements
 		// Changes the sprite
 		getSpriteDrawer().setSpriteIndex(1, false);
 		this.testing = true;
+		invalidateStaticLook();
 	}
 
 	@Override
@@ -302,6 +332,22 @@ public abstract class Machine extends DimensionalDrawnObject implements
 		// Changes the sprite
 		getSpriteDrawer().setSpriteIndex(0, false);
 		this.testing = false;
+		invalidateStaticLook();
+	}
+	
+	@Override
+	public boolean isStatic()
+	{
+		// The machine doesn't change during design mode by default
+		return !this.testing;
+	}
+	
+	@Override
+	public Rectangle getDrawBounds()
+	{
+		// The name may be drawn outside the sprite
+		return StaticLayer.getDrawBounds(this, getWidth(), getHeight(), 
+				GameSettings.basicFont.getSize() * toString().length());
 	}
 	
 	
@@ -321,6 +367,17 @@ public abstract class Machine extends DimensionalDrawnObject implements
 		return this.spritedrawer;
 	}
 	
+	/**
+	 * Informs the staticLayer that the machine's looks have changed or that 
+	 * it has started or stopped being static. Subclasses should call this 
+	 * whenever the return value of {@link #isStatic()} changes.
+	 */
+	protected void invalidateStaticLook()
+	{
+		if (this.staticLayer != null)
+			this.staticLayer.invalidate(this);
+	}
+	
 	/**
 	 * Sends signal through the output component to other connected components
 	 * 
@@ -34,11 +34,70 @@ public class GameSettings
 	 * How long a single "turn" in the game should take (in steps)
 	 */
 	public static final int turnDuration = 100;
+	/**
+	 * How many turns are run when a test is fast-forwarded
+	 */
+	public static final int fastForwardTurns = 60;
+	/**
+	 * How many steps are run during a single frame while fast-forwarding. 
+	 * Only the state at the end of each frame is drawn.
+	 */
+	public static final int fastForwardStepsPerFrame = 2000;
 	/**
 	 * How fast should objects usually move horizontally to move a single 
 	 * "unit" in a turn
 	 */
 	public static final double normalTurnSpeed = 1.72;
+	/**
+	 * How long a single physics step is (in steps). The physics are always 
+	 * run in steps of this length, regardless of the frame rate.
+	 */
+	public static final int physicsStepLength = 1;
+	/**
+	 * How many physics steps can be run during a single game loop step. If 
+	 * the game lags more than this, the physics slow down instead.
+	 */
+	public static final int maxPhysicsStepsPerCall = 10;
+	/**
+	 * How far an obstacle can move around (pixels) and still be considered 
+	 * resting
+	 */
+	public static final double sleepDistance = 2;
+	/**
+	 * How many steps an obstacle must rest before it falls asleep and stops 
+	 * being simulated
+	 */
+	public static final int sleepSteps = 60;
+	/**
+	 * How many delta cycles a signal can propagate through during a single 
+	 * turn before the circuit is considered oscillating
+	 */
+	public static final int deltaCycleLimit = 1000;
+	/**
+	 * How many times an input's signal can change during a single turn 
+	 * before the input is damped for the rest of the turn
+	 */
+	public static final int signalToggleLimit = 32;
+	/**
+	 * How many input updates must be queued at once before the separate 
+	 * parts of a circuit are handled in parallel
+	 */
+	public static final int parallelSignalThreshold = 64;
+	/**
+	 * Should the output signals set during a turn be applied together once 
+	 * all the objects have been informed about the turn. Missions can turn 
+	 * this on for their own circuit.
+	 */
+	public static final boolean clockedTurns = false;
+	/**
+	 * Should the static parts of the coding area be cached so that only the 
+	 * regions that have changed are redrawn
+	 */
+	public static final boolean dirtyRegionDrawing = true;
+	/**
+	 * How many laid out texts are kept in the textCache at most
+	 */
+	public static final int textCacheSize = 256;
 	/**
 	 * The basic font used in the game
 	 */
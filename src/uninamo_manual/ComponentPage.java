@@ -5,6 +5,7 @@ import java.awt.Graphics2D;
 import omega_world.Area;
 import omega_world.GameObject;
 import uninamo_components.ComponentType;
+import uninamo_gameplaysupport.TextCache;
 import uninamo_gameplaysupport.TurnHandler;
 
 /**
@@ -59,7 +60,7 @@ public class ComponentPage extends DescriptionPage implements Page
 		super.drawSelfBasic(g2d);
 		
 		// And a note
-		g2d.drawString("Click the cables to test", 32, 128);
+		TextCache.drawString(g2d, "Click the cables to test", 32, 128);
 	}
 
 	@Override
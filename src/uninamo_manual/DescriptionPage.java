@@ -9,6 +9,7 @@ import java.awt.Graphics2D;
 import omega_graphic.DrawnObject;
 import omega_world.Area;
 import omega_world.GameObject;
+import uninamo_gameplaysupport.TextCache;
 import uninamo_main.GameSettings;
 
 /**
@@ -108,7 +109,7 @@ public abstract class DescriptionPage extends DrawnObject implements Page
 			this.textDrawer.drawText(g2d, 32, 256);
 		
 		// Draws the headline
-		g2d.drawString(this.pagename, 32, 50);
+		TextCache.drawString(g2d, this.pagename, 32, 50);
 	}
 
 	@Override
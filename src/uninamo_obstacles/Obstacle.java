@@ -9,7 +9,9 @@ import java.util.ArrayList;
 
 import omega_gameplay.AdvancedPhysicDrawnObject;
 import omega_gameplay.Collidable;
+import omega_gameplay.CollisionListener;
 import omega_gameplay.CollisionType;
+import omega_gameplay.HelpMath;
 import omega_gameplay.Movement;
 import omega_graphic.MultiSpriteDrawer;
 import omega_graphic.OpenSpriteBank;
@@ -17,28 +19,46 @@ import omega_graphic.Sprite;
 import omega_world.Area;
 import omega_world.Room;
 import omega_world.RoomListener;
+import uninamo_gameplaysupport.CollisionLayer;
+import uninamo_gameplaysupport.CollisionSweeper;
+import uninamo_gameplaysupport.PhysicsBased;
+import uninamo_gameplaysupport.PhysicsStepper;
 import uninamo_gameplaysupport.TestHandler;
 import uninamo_gameplaysupport.TestListener;
 import uninamo_gameplaysupport.Wall;
+import uninamo_main.GameSettings;
 
 /**
  * obstacles are the main 'objects' in the game in a sense that the user is 
  * trying to affect them. Obstacles interact with some of the machinery but 
- * are more often the passive part in the interaction.
+ * are more often the passive part in the interaction. An obstacle that has 
+ * been resting for a while falls asleep and isn't simulated until something 
+ * wakes it up. When an obstacle is removed, moves away from its resting 
+ * place or wakes up, the sleeping obstacles touching it are woken up as 
+ * well, since they may be resting on it. Obstacles move in the fixed steps of the area's 
+ * physicsStepper.
  * 
  * @author Mikko Hilpinen
  * @since 9.3.2014
  */
 public abstract class Obstacle extends AdvancedPhysicDrawnObject implements 
-	RoomListener, TestListener
+	RoomListener, TestListener, PhysicsBased
 {
 	// ATTRIBUTES	-----------------------------------------------------
 	
 	private MultiSpriteDrawer spritedrawer;
-	private boolean started;
-	private Point2D.Double startPosition;
+	private boolean started, sleeping;
+	private double stillSteps;
+	private Point2D.Double startPosition, restPosition;
+	private CollisionSweeper sweeper;
 	//private static final Class<?> COLLIDEDCLASSES[] = {Machine.class, Obstacle.class};
 	
+	private static final double GRAVITY = 2;
+	// Since gravity is added in steps, an obstacle bouncing on a wall never 
+	// settles down by itself but keeps hitting it at about three steps' 
+	// worth of gravity. Impacts slower than this don't bounce.
+	private static final double RESTINGSPEED = 4 * GRAVITY;
+	
 	
 	// CONSTRUCTOR	-----------------------------------------------------
 	
@@ -71,13 +91,20 @@ public abstract class Obstacle extends AdvancedPhysicDrawnObject implements
 				realSpriteName);
 		this.spritedrawer = new MultiSpriteDrawer(sprites, area.getActorHandler(), this);
 		this.started = false;
+		this.sleeping = false;
+		this.stillSteps = 0;
 		this.startPosition = new Point2D.Double(x, y);
+		this.restPosition = new Point2D.Double(x, y);
+		this.sweeper = CollisionSweeper.getSweeper(area);
 		
 		setupRotationOrigin();
 		
 		// Adds the object to the handler(s)
 		if (testHandler != null)
 			testHandler.addTestable(this);
+		this.sweeper.addCollisionListener(this, CollisionLayer.OBSTACLE, true);
+		this.sweeper.addCollidable(this, CollisionLayer.OBSTACLE);
+		PhysicsStepper.getStepper(area).addPhysicsBased(this);
 	}
 	
 	
@@ -106,9 +133,16 @@ public abstract class Obstacle extends AdvancedPhysicDrawnObject implements
 	public void onCollision(ArrayList<Double> colpoints, Collidable collided, 
 			double steps)
 	{	
+		// A moving obstacle wakes up the obstacles it hits. Obstacles resting 
+		// on each other don't wake each other up
+		if (collided instanceof Obstacle && this.stillSteps == 0)
+			((Obstacle) collided).wakeUp();
+		
 		// if the collided object is a wall, bounces away from it
 		if (collided instanceof Wall)
 		{
+			boolean resting = getMovement().getSpeed() < RESTINGSPEED * steps;
+			
 			// If the collided object also is an advancedPhysicDrawnObject, uses 
 			// a more "sophisticated" collision method
 			if (collided instanceof AdvancedPhysicDrawnObject)
@@ -121,14 +155,18 @@ public abstract class Obstacle extends AdvancedPhysicDrawnObject implements
 				// TODO: Munch these numbers further if need be
 				titaniumCollision((Wall) collided, colpoints, 0.5, steps);
 			}
+			
+			// Slow impacts don't bounce so that the obstacle can come to rest
+			if (resting)
+				stopBounce((Wall) collided, colpoints);
 		}
 	}
 
 	@Override
 	public Class<?>[] getSupportedListenerClasses()
 	{
-		// Doesn't limit colliding classes
-		return null;//COLLIDEDCLASSES;
+		// The collisions are checked by the area's collisionSweeper
+		return CollisionSweeper.NOLISTENERCLASSES;
 	}
 
 	@Override
@@ -179,11 +217,42 @@ public abstract class Obstacle extends AdvancedPhysicDrawnObject implements
 	@Override
 	public void act(double steps)
 	{	
+		// The obstacle moves only in physics steps
+	}
+	
+	@Override
+	public void onPhysicsStep(int steps)
+	{
+		// Falls asleep after staying in place for a while. The position is 
+		// checked after the last step's collisions have been handled. The 
+		// speed isn't used since gravity gives even a resting obstacle some 
+		// speed each step
+		if (HelpMath.pointDistance(getX(), getY(), this.restPosition.getX(), 
+				this.restPosition.getY()) <= GameSettings.sleepDistance)
+		{
+			this.stillSteps += steps;
+			if (this.stillSteps >= GameSettings.sleepSteps)
+			{
+				sleep();
+				return;
+			}
+		}
+		else
+		{
+			// An obstacle leaving its resting place may have been 
+			// supporting others
+			if (this.stillSteps > 0)
+				wakeUpTouchingObstacles();
+			
+			this.stillSteps = 0;
+			this.restPosition = getPosition();
+		}
+		
 		super.act(steps);
 		
 		// Adds gravity
 		// G = mg
-		addImpulse(Movement.createMovement(270, 2 * getMass()), 
+		addImpulse(Movement.createMovement(270, GRAVITY * getMass()), 
 				getPosition(), steps);
 		//scale(1.01, 1.01);
 	}
@@ -191,8 +260,8 @@ public abstract class Obstacle extends AdvancedPhysicDrawnObject implements
 	@Override
 	public boolean isActive()
 	{
-		// Only started obstacles are active
-		return super.isActive() && this.started;
+		// Only started obstacles that are awake are active
+		return super.isActive() && this.started && !this.sleeping;
 	}
 	
 	@Override
@@ -202,6 +271,15 @@ public abstract class Obstacle extends AdvancedPhysicDrawnObject implements
 		return super.isSolid() && this.started;
 	}
 	
+	@Override
+	public void kill()
+	{
+		// The obstacles resting on this one start to fall
+		wakeUpTouchingObstacles();
+		
+		super.kill();
+	}
+	
 	@Override
 	public void onRoomStart(Room room)
 	{
@@ -224,6 +302,7 @@ public abstract class Obstacle extends AdvancedPhysicDrawnObject implements
 		// Changes the object's graphics and starts it
 		getSpriteDrawer().setSpriteIndex(1, false);
 		this.started = true;
+		wakeUp();
 	}
 	
 	/**
@@ -234,6 +313,7 @@ public abstract class Obstacle extends AdvancedPhysicDrawnObject implements
 	{
 		// Returns back to the original position and sprite
 		this.started = false;
+		wakeUp();
 		getSpriteDrawer().setSpriteIndex(0, false);
 		setPosition(this.startPosition);
 		setMovement(new Movement(0, 0));
@@ -253,4 +333,68 @@ public abstract class Obstacle extends AdvancedPhysicDrawnObject implements
 	{
 		return this.spritedrawer;
 	}
+	
+	/**
+	 * @return Is the obstacle currently sleeping. Sleeping obstacles don't 
+	 * move or check their collisions but can still be collided with.
+	 */
+	public boolean isSleeping()
+	{
+		return this.sleeping;
+	}
+	
+	
+	// OTHER METHODS	--------------------------------------------------
+	
+	/**
+	 * Wakes the obstacle up so that it is simulated again. This should be 
+	 * called when something starts to move the obstacle.
+	 */
+	public void wakeUp()
+	{
+		boolean wasSleeping = this.sleeping;
+		
+		this.sleeping = false;
+		this.stillSteps = 0;
+		this.restPosition = getPosition();
+		
+		// The obstacles resting on this one may have to move as well
+		if (wasSleeping)
+			wakeUpTouchingObstacles();
+	}
+	
+	// Wakes up the sleeping obstacles whose bounds touch this obstacle
+	private void wakeUpTouchingObstacles()
+	{
+		for (CollisionListener listener : 
+				this.sweeper.getListenersTouching(this))
+		{
+			if (listener instanceof Obstacle && 
+					((Obstacle) listener).isSleeping())
+				((Obstacle) listener).wakeUp();
+		}
+	}
+	
+	private void sleep()
+	{
+		this.sleeping = true;
+		setMovement(new Movement(0, 0));
+	}
+	
+	// Removes the part of the movement that takes the obstacle away from the 
+	// wall
+	private void stopBounce(Wall wall, ArrayList<Double> colpoints)
+	{
+		double direction = wall.getCollisionForceDirection(
+				HelpMath.getAveragePoint(colpoints));
+		double normalX = HelpMath.lendirX(1, direction);
+		double normalY = HelpMath.lendirY(1, direction);
+		
+		Movement movement = getMovement();
+		double bounce = movement.getHSpeed() * normalX + 
+				movement.getVSpeed() * normalY;
+		if (bounce > 0)
+			setMovement(new Movement(movement.getHSpeed() - bounce * normalX, 
+					movement.getVSpeed() - bounce * normalY));
+	}
 }
@@ -7,6 +7,7 @@ import java.awt.geom.Point2D;
 
 import omega_graphic.OpenSpriteBank;
 import omega_world.Area;
+import uninamo_gameplaysupport.MouseDispatcher;
 import uninamo_main.GameSettings;
 
 /**
@@ -41,6 +42,10 @@ public class CodeTransitionButton extends AbstractButton
 		// Initializes attributes
 		this.oldArea = oldArea;
 		this.newArea = newArea;
+		
+		// The button is informed through the area's mouseDispatcher
+		if (oldArea.getMouseHandler() != null)
+			MouseDispatcher.getDispatcher(oldArea).takeMouseListener(this);
 	}
 	
 	
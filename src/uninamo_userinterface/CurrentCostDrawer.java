@@ -8,6 +8,7 @@ import omega_graphic.DrawnObject;
 import omega_world.Area;
 import omega_world.Room;
 import omega_world.RoomListener;
+import uninamo_gameplaysupport.TextCache;
 import uninamo_main.GameSettings;
 
 /**
@@ -22,7 +23,7 @@ public class CurrentCostDrawer extends DrawnObject implements RoomListener
 	// ATTRIBUTES	-----------------------------------------------------
 	
 	private double currentCosts;
-	private String currentCostString;
+	private String costText;
 	
 	
 	// CONSTRUCTOR	-----------------------------------------------------
@@ -39,7 +40,7 @@ public class CurrentCostDrawer extends DrawnObject implements RoomListener
 		
 		// Initializes attributes
 		this.currentCosts = 0;
-		this.currentCostString = "0";
+		this.costText = "Component Costs: 0 M ";
 		
 		// Adds the object to the handler(s)
 		if (area != null)
@@ -78,7 +79,7 @@ public class CurrentCostDrawer extends DrawnObject implements RoomListener
 	public void drawSelfBasic(Graphics2D g2d)
 	{
 		// Draws the current total
-		g2d.drawString("Component Costs: " + this.currentCostString + " M ", 0, 0);
+		TextCache.drawString(g2d, this.costText, 0, 0);
 	}
 	
 	
@@ -93,7 +94,8 @@ public class CurrentCostDrawer extends DrawnObject implements RoomListener
 	{
 		this.currentCosts += amount;
 		
-		// Rounds the value
-		this.currentCostString = String.format("%.2f", this.currentCosts);
+		// Rounds the value. The text is only updated when the costs change
+		this.costText = "Component Costs: " + 
+				String.format("%.2f", this.currentCosts) + " M ";
 	}
 }
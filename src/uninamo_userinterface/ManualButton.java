@@ -6,6 +6,8 @@ import genesis_graphic.DepthConstants;
 import java.awt.geom.Point2D.Double;
 
 import omega_graphic.OpenSpriteBank;
+import omega_world.Area;
+import uninamo_gameplaysupport.MouseDispatcher;
 import uninamo_gameplaysupport.TestListener;
 import uninamo_gameplaysupport.TurnHandler;
 import uninamo_main.GameSettings;
@@ -47,6 +49,11 @@ public class ManualButton extends AbstractButton implements TestListener
 		// Initializes attributes
 		this.areaChanger = areaChanger;
 		this.turnHandler = turnHandler;
+		
+		// The button is informed through the area's mouseDispatcher
+		Area area = areaChanger.getArea("coding");
+		if (area.getMouseHandler() != null)
+			MouseDispatcher.getDispatcher(area).takeMouseListener(this);
 	}
 	
 	
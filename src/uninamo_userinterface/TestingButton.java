@@ -7,6 +7,7 @@ import java.awt.geom.Point2D;
 
 import omega_graphic.OpenSpriteBank;
 import omega_world.Area;
+import uninamo_gameplaysupport.MouseDispatcher;
 import uninamo_gameplaysupport.TestHandler;
 import uninamo_gameplaysupport.TestListener;
 import uninamo_main.GameSettings;
@@ -14,7 +15,8 @@ import uninamo_main.GameSettings;
 /**
  * The user uses the testingButton to move between the testing phase and 
  * creation phase. Testing phase is used to see the results of one's creations 
- * while they be edited in the creation mode.
+ * while they be edited in the creation mode. Right clicking the button starts 
+ * a fast-forwarded test.
  * 
  * @author Mikko Hilpinen
  * @since 10.3.2014
@@ -58,6 +60,8 @@ public class TestingButton extends AbstractButton implements TestListener
 		// Adds the object to the handler(s)
 		if (testHandler != null)
 			testHandler.addTestable(this);
+		if (area.getMouseHandler() != null)
+			MouseDispatcher.getDispatcher(area).takeMouseListener(this);
 	}
 	
 	
@@ -77,6 +81,11 @@ public class TestingButton extends AbstractButton implements TestListener
 			else
 				this.testHandler.onTestStart();
 		}
+		// On right mouse click, fast-forwards a test
+		else if (button == MouseButton.RIGHT && 
+				eventType == MouseButtonEventType.PRESSED && !this.testing)
+			this.testHandler.startFastForwardTest(
+					GameSettings.fastForwardTurns);
 	}
 
 	@Override
@@ -7,6 +7,10 @@ import genesis_graphic.GameWindow;
 import omega_world.AreaRelay;
 import uninamo_components.ConnectorRelay;
 import uninamo_components.NormalComponentRelay;
+import uninamo_components.SignalLoopDetector;
+import uninamo_components.SignalTurnHandler;
+import uninamo_gameplaysupport.FastForwarder;
+import uninamo_gameplaysupport.PhysicsStepper;
 import uninamo_gameplaysupport.TestHandler;
 import uninamo_gameplaysupport.TotalCostAnalyzer;
 import uninamo_gameplaysupport.TurnTimer;
@@ -46,13 +50,18 @@ public class AreaChanger extends AreaRelay
 				getArea("coding"));
 		TestHandler testHandler = new TestHandler(null);
 		
+		// The design area contains the context and the mission stuff
+		addArea("design", phaseBank.getPhase("gameplay"));
+		
+		// The turns are timed by the design area's physics
 		TurnTimer turnTimer = new TurnTimer(testHandler, 
-				getArea("coding"), getArea("coding").getActorHandler());
+				getArea("coding"), PhysicsStepper.getStepper(getArea("design")));
+		SignalTurnHandler signalTurnHandler = new SignalTurnHandler(turnTimer, 
+				connectorRelay.getCircuit());
+		new SignalLoopDetector(connectorRelay.getCircuit(), testHandler);
 		new CodingObjectCreator(this, connectorRelay, componentRelay, 
-				testHandler, turnTimer);
+				testHandler, signalTurnHandler);
 		
-		// The design area contains the context and the mission stuff
-		addArea("design", phaseBank.getPhase("gameplay"));
 		new DesignObjectCreator(this, testHandler, componentRelay, 
 				connectorRelay, costAnalyzer);
 		
@@ -62,5 +71,10 @@ public class AreaChanger extends AreaRelay
 		// Mission contains the short mission briefing shown at the start of a stage
 		addArea("mission", phaseBank.getPhase("gameplay"));
 		new MissionObjectCreator(getArea("mission"));
+		
+		// Fast-forward tests run the design area's physics, which also 
+		// time the turns
+		new FastForwarder(window.getStepHandler(), testHandler, 
+				PhysicsStepper.getStepper(getArea("design")));
 	}
 }
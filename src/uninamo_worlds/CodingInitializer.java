@@ -67,8 +67,9 @@ public class CodingInitializer extends ObjectInitializer
 	@Override
 	protected boolean supportsCreationMode(CreationMode mode)
 	{
-		// Supports components and cables
-		return (mode == CreationMode.COMPONENTS || mode == CreationMode.CABLES);
+		// Supports components, cables and circuit settings
+		return (mode == CreationMode.COMPONENTS || mode == CreationMode.CABLES 
+				|| mode == CreationMode.CIRCUIT);
 	}
 
 	@Override
@@ -103,6 +104,17 @@ public class CodingInitializer extends ObjectInitializer
 			newComponent.setID(arguments[0]);
 			newComponent.stopDrag();
 		}
+		// Circuit settings
+		else if (currentMode == CreationMode.CIRCUIT)
+		{
+			// Clocked mode applies the output signals at the end of each turn
+			if (arguments[0].equalsIgnoreCase("clocked"))
+				this.connectorRelay.getCircuit().setClocked(
+						arguments.length < 2 || 
+						Boolean.parseBoolean(arguments[1]));
+			else
+				System.err.println("Unknown circuit setting: " + arguments[0]);
+		}
 		// Cables
 		else
 		{
@@ -2,12 +2,14 @@ package uninamo_worlds;
 
 import omega_world.Area;
 import omega_world.AreaObjectCreator;
+import uninamo_components.CableLayer;
 import uninamo_components.ComponentBox;
 import uninamo_components.ComponentType;
 import uninamo_components.ConnectorRelay;
 import uninamo_components.NormalComponentRelay;
+import uninamo_gameplaysupport.StaticLayer;
 import uninamo_gameplaysupport.TestHandler;
-import uninamo_gameplaysupport.TurnTimer;
+import uninamo_gameplaysupport.TurnHandler;
 import uninamo_main.GameSettings;
 import uninamo_userinterface.CodeTransitionButton;
 import uninamo_userinterface.CurrentCostDrawer;
@@ -28,7 +30,7 @@ public class CodingObjectCreator extends AreaObjectCreator
 	private AreaChanger areaChanger;
 	private ConnectorRelay connectorRelay;
 	private TestHandler testHandler;
-	private TurnTimer timer;
+	private TurnHandler timer;
 	private NormalComponentRelay componentRelay;
 	
 	
@@ -46,11 +48,11 @@ public class CodingObjectCreator extends AreaObjectCreator
 	 * created components
 	 * @param testHandler The testHandler that will inform the objects about 
 	 * test events
-	 * @param timer The turnTimer that informs the objects about turn events
+	 * @param timer The turnHandler that informs the objects about turn events
 	 */
 	public CodingObjectCreator(AreaChanger areaChanger, 
 			ConnectorRelay connectorRelay, NormalComponentRelay componentRelay, 
-			TestHandler testHandler, TurnTimer timer)
+			TestHandler testHandler, TurnHandler timer)
 	{
 		super(areaChanger.getArea("coding"), null, null, 0, 0);
 		
@@ -68,6 +70,11 @@ public class CodingObjectCreator extends AreaObjectCreator
 	@Override
 	protected void createObjects(Area area)
 	{
+		// The static parts of the area are cached, including the cables
+		if (GameSettings.dirtyRegionDrawing)
+			CableLayer.getLayer(area).setStaticLayer(
+					StaticLayer.getLayer(area));
+		
 		// Creates the interface elements
 		new CodeTransitionButton(0, area, this.areaChanger.getArea("design"));
 		new TestingButton(area, GameSettings.screenWidth - 110, 45, this.testHandler);
@@ -2,6 +2,9 @@ package uninamo_worlds;
 
 import omega_world.Area;
 import uninamo_components.ConnectorRelay;
+import uninamo_gameplaysupport.CollisionLayer;
+import uninamo_gameplaysupport.CollisionLayerMatrix;
+import uninamo_gameplaysupport.CollisionSweeper;
 import uninamo_gameplaysupport.ObstacleCollector;
 import uninamo_gameplaysupport.TestHandler;
 import uninamo_gameplaysupport.VictoryHandler;
@@ -54,6 +57,9 @@ public class DesignInitializer extends ObjectInitializer
 		this.connectorRelay = connectorRelay;
 		this.victoryHandler = victoryHandler;
 		
+		// Each stage starts with the default collision layers
+		CollisionSweeper.getSweeper(this.designArea).getLayerMatrix().reset();
+		
 		createObjects();
 	}
 	
@@ -63,9 +69,9 @@ public class DesignInitializer extends ObjectInitializer
 	@Override
 	protected boolean supportsCreationMode(CreationMode mode)
 	{
-		// Supports obstacle, machine and collector modes
+		// Supports obstacle, machine, collector and layer modes
 		return (mode == CreationMode.MACHINES || mode == CreationMode.OBSTACLES || 
-				mode == CreationMode.COLLECTORS);
+				mode == CreationMode.COLLECTORS || mode == CreationMode.LAYERS);
 	}
 
 	@Override
@@ -108,6 +114,24 @@ public class DesignInitializer extends ObjectInitializer
 				}
 			}
 		}
+		else if (currentMode == CreationMode.LAYERS)
+		{
+			// Lines in the &layers section are written as 
+			// <layer>#<layer>#<true|false>. For example 
+			// "obstacle#obstacle#false" lets the obstacles pass through each 
+			// other. Arguments 0 and 1 are the layers, argument 2 tells 
+			// whether they interact
+			CollisionLayer first = getLayer(arguments[0]);
+			CollisionLayer second = getLayer(arguments[1]);
+			
+			if (first != null && second != null)
+			{
+				CollisionLayerMatrix matrix = CollisionSweeper.getSweeper(
+						this.designArea).getLayerMatrix();
+				matrix.setInteraction(first, second, 
+						Boolean.parseBoolean(arguments[2]));
+			}
+		}
 		else
 		{
 			ObstacleType collectedType = null;
@@ -133,4 +157,19 @@ public class DesignInitializer extends ObjectInitializer
 					amount, arguments[4], arguments[5]);
 		}
 	}
+	
+	
+	// OTHER METHODS	-------------------------------------------------
+	
+	private static CollisionLayer getLayer(String layerName)
+	{
+		for (CollisionLayer layer : CollisionLayer.values())
+		{
+			if (layer.toString().equalsIgnoreCase(layerName))
+				return layer;
+		}
+		
+		System.err.println("Couldn't find a collisionLayer named " + layerName);
+		return null;
+	}
 }
@@ -1,10 +1,12 @@
 package uninamo_worlds;
 
+import omega_graphic.OpenSpriteBank;
 import omega_world.Area;
 import omega_world.AreaObjectCreator;
 import uninamo_components.ConnectorRelay;
 import uninamo_components.NormalComponentRelay;
 import uninamo_gameplaysupport.InvisibleWall;
+import uninamo_gameplaysupport.StaticLayer;
 import uninamo_gameplaysupport.TestHandler;
 import uninamo_gameplaysupport.TotalCostAnalyzer;
 import uninamo_gameplaysupport.VictoryHandler;
@@ -53,8 +55,8 @@ public class DesignObjectCreator extends AreaObjectCreator
 			TestHandler testHandler, NormalComponentRelay componentRelay, 
 			ConnectorRelay connectorRelay, TotalCostAnalyzer costAnalyzer)
 	{
-		super(areaChanger.getArea("design"), "paper", "gameplaybackgrounds", 
-				GameSettings.screenWidth, GameSettings.screenHeight);
+		// The background is drawn by the area's staticLayer
+		super(areaChanger.getArea("design"), null, null, 0, 0);
 		
 		// Initializes attributes
 		this.areaChanger = areaChanger;
@@ -70,6 +72,10 @@ public class DesignObjectCreator extends AreaObjectCreator
 	@Override
 	protected void createObjects(Area area)
 	{
+		// Sets the background
+		StaticLayer.getLayer(area).setBackground(OpenSpriteBank.getSpriteBank(
+				"gameplaybackgrounds").getSprite("paper"));
+		
 		// Creates the invisible walls
 		new InvisibleWall(0, 1, 0, area);
 		new InvisibleWall(0, -1, GameSettings.screenWidth, area);
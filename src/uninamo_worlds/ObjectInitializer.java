@@ -3,6 +3,8 @@ package uninamo_worlds;
 import flow_fileIO.FileReader;
 import uninamo_components.Cable;
 import uninamo_components.NormalComponent;
+import uninamo_components.SignalCircuit;
+import uninamo_gameplaysupport.CollisionLayerMatrix;
 import uninamo_gameplaysupport.ObstacleCollector;
 import uninamo_machinery.Machine;
 import uninamo_obstacles.Obstacle;
@@ -159,6 +161,16 @@ public abstract class ObjectInitializer extends FileReader
 		 * Cables are used to connect the components
 		 * @see Cable
 		 */
-		CABLES;
+		CABLES,
+		/**
+		 * Layers change which collisionLayers interact during the stage
+		 * @see CollisionLayerMatrix
+		 */
+		LAYERS,
+		/**
+		 * Circuit settings change how the signalCircuit of the stage is run
+		 * @see SignalCircuit
+		 */
+		CIRCUIT;
 	}
 }